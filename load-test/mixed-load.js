@@ -0,0 +1,109 @@
+// Mixed /login + /expense + /stats load for comparing platform vs virtual thread mode.
+//
+//   k6 run -e BASE_URL=http://localhost:8080/api -e EMAIL=load@example.com -e PASSWORD=secret load-test/mixed-load.js
+//
+// Run once against the default profile and once with --spring.profiles.active=virtual,
+// then compare http_reqs (throughput) and the p(99) of http_req_duration per endpoint tag.
+// Start the app with --rate-limit.enabled=false: every login here uses one email from one address, and the
+// default limits (5 per email per 5 minutes, 20 per IP per minute) would turn almost all of them into 429s
+// that never reach BCrypt. setup() aborts if /login is rate-limited.
+// teardown() prints the Hibernate second-level and query cache hit ratios from /actuator/metrics. They need
+// --spring.jpa.properties.hibernate.generate_statistics=true on the app; counters are cumulative, so restart
+// the app before each run for a clean report.
+import http from 'k6/http';
+import { check, fail } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080/api';
+const EMAIL = __ENV.EMAIL;
+const PASSWORD = __ENV.PASSWORD;
+
+export const options = {
+    scenarios: {
+        mixed: {
+            executor: 'ramping-vus',
+            startVUs: 0,
+            stages: [
+                { duration: '30s', target: 200 },
+                { duration: '2m', target: 200 },
+                { duration: '15s', target: 0 },
+            ],
+        },
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+    thresholds: {
+        'http_req_duration{endpoint:expense}': ['p(99)<1000'],
+        'http_req_duration{endpoint:stats}': ['p(99)<1000'],
+    },
+};
+
+// Ids created by this VU, reused for GET /expense/{id}
+const createdIds = [];
+
+function login() {
+    const res = http.post(`${BASE_URL}/login`, JSON.stringify({ email: EMAIL, password: PASSWORD }), {
+        headers: { 'Content-Type': 'application/json' },
+        tags: { endpoint: 'login' },
+    });
+    check(res, {
+        'login ok': (r) => r.status === 200,
+        'login not rate-limited': (r) => r.status !== 429,
+    });
+    return res;
+}
+
+export function setup() {
+    const res = login();
+    if (res.status === 429) {
+        fail('/login is rate-limited; start the app with --rate-limit.enabled=false');
+    }
+    return { token: res.json('token') };
+}
+
+export default function (data) {
+    const auth = { headers: { Authorization: `Bearer ${data.token}`, 'Content-Type': 'application/json' } };
+    const roll = Math.random();
+
+    if (roll < 0.1) {
+        // BCrypt-bound
+        login();
+    } else if (roll < 0.4) {
+        const res = http.get(`${BASE_URL}/expense/page?size=20`, { ...auth, tags: { endpoint: 'expense' } });
+        check(res, { 'expense page ok': (r) => r.status === 200 });
+    } else if (roll < 0.5 && createdIds.length > 0) {
+        // Primary-key reads are the ones the second-level cache can serve
+        const id = createdIds[Math.floor(Math.random() * createdIds.length)];
+        const res = http.get(`${BASE_URL}/expense/${id}`, { ...auth, tags: { endpoint: 'expense' } });
+        check(res, { 'expense by id ok': (r) => r.status === 200 });
+    } else if (roll < 0.6) {
+        const body = JSON.stringify({
+            title: 'load test', category: 'Load', description: 'k6', amount: 100,
+            date: new Date().toISOString().slice(0, 10),
+        });
+        const res = http.post(`${BASE_URL}/expense`, body, { ...auth, tags: { endpoint: 'expense' } });
+        if (check(res, { 'expense created': (r) => r.status === 201 }) && createdIds.length < 100) {
+            createdIds.push(res.json('id'));
+        }
+    } else {
+        const res = http.get(`${BASE_URL}/stats`, { ...auth, tags: { endpoint: 'stats' } });
+        check(res, { 'stats ok': (r) => r.status === 200 });
+    }
+}
+
+function cacheRequests(auth, metric, result) {
+    const res = http.get(`${BASE_URL}/actuator/metrics/${metric}?tag=result:${result}`, auth);
+    return res.status === 200 ? res.json('measurements.0.value') : 0;
+}
+
+export function teardown(data) {
+    const auth = { headers: { Authorization: `Bearer ${data.token}` } };
+    const caches = [
+        ['second-level', 'hibernate.second.level.cache.requests'],
+        ['query', 'hibernate.cache.query.requests'],
+    ];
+    for (const [name, metric] of caches) {
+        const hits = cacheRequests(auth, metric, 'hit');
+        const misses = cacheRequests(auth, metric, 'miss');
+        const ratio = hits + misses > 0 ? (100 * hits / (hits + misses)).toFixed(1) : 'n/a';
+        console.log(`${name} cache: ${hits} hits, ${misses} misses, hit ratio ${ratio}%`);
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.ExpenseTracker.Benchmark;
+
+import com.example.ExpenseTracker.DTO.GraphDTO;
+import com.example.ExpenseTracker.Entity.Expense;
+import com.example.ExpenseTracker.Entity.Income;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Server-side cost of encoding the chart payload as JSON, CBOR or Smile, with the mapper
+ * settings the HTTP converters use. The encoded size of each combination is printed once
+ * per trial, so one run answers both "how many bytes" and "how much CPU".
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class EncodingBenchmark {
+
+    @Param({"10000", "100000"})
+    public int rows;
+
+    @Param({"json", "cbor", "smile"})
+    public String encoding;
+
+    private ObjectMapper objectMapper;
+    private GraphDTO graphDTO;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = switch (encoding) {
+            case "cbor" -> Jackson2ObjectMapperBuilder.json().factory(new CBORFactory()).build();
+            case "smile" -> Jackson2ObjectMapperBuilder.json().factory(new SmileFactory()).build();
+            default -> Jackson2ObjectMapperBuilder.json().build();
+        };
+
+        List<Expense> expenses = SampleData.expenses(rows / 2);
+        List<Income> incomes = SampleData.incomes(rows / 2);
+        graphDTO = new GraphDTO();
+        graphDTO.setExpenseList(SampleData.expensePoints(expenses));
+        graphDTO.setIncomeList(SampleData.incomePoints(incomes));
+
+        CountingOutputStream counter = new CountingOutputStream();
+        objectMapper.writeValue(counter, graphDTO);
+        System.out.printf("%n[payload] encoding=%s rows=%d bytes=%d (%.1f bytes/record)%n",
+                encoding, rows, counter.count, (double) counter.count / rows);
+    }
+
+    @Benchmark
+    public void graphDto() throws IOException {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), graphDTO);
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.ExpenseTracker.Benchmark;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Builds repository stubs that answer a fixed set of methods from in-memory data, so
+ * benchmarks measure our code rather than a database or a mocking framework.
+ */
+final class InMemoryRepositories {
+
+    private InMemoryRepositories() {
+    }
+
+    static <T> T stub(Class<T> repositoryType, Map<String, Function<Object[], Object>> answers) {
+        Object proxy = Proxy.newProxyInstance(repositoryType.getClassLoader(), new Class<?>[]{repositoryType},
+                (self, method, args) -> {
+                    Function<Object[], Object> answer = answers.get(method.getName());
+                    if (answer != null) {
+                        return answer.apply(args);
+                    }
+                    if (method.getName().equals("toString")) {
+                        return repositoryType.getSimpleName() + " stub";
+                    }
+                    throw new UnsupportedOperationException(repositoryType.getSimpleName() + "." + method.getName());
+                });
+        return repositoryType.cast(proxy);
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.ExpenseTracker.Benchmark;
+
+import com.example.ExpenseTracker.DTO.IncomeDTO;
+import com.example.ExpenseTracker.Entity.Income;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Entity-to-DTO mapping as done by IncomeServiceImpl for list endpoints.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class IncomeMappingBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int rows;
+
+    private List<Income> incomes;
+
+    @Setup
+    public void setUp() {
+        incomes = SampleData.incomes(rows);
+    }
+
+    @Benchmark
+    public IncomeDTO mapSingle() {
+        return incomes.get(0).getIncomeDTO();
+    }
+
+    @Benchmark
+    public List<IncomeDTO> mapList() {
+        return incomes.stream()
+                .map(Income::getIncomeDTO)
+                .collect(Collectors.toList());
+    }
+}
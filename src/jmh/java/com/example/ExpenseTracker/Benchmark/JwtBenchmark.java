@@ -0,0 +1,73 @@
+package com.example.ExpenseTracker.Benchmark;
+
+import com.example.ExpenseTracker.Util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issue and verification cost. legacyTripleParse replays the old filter path
+ * (extractEmail + validateToken + isTokenExpired, each re-deriving the key from the secret
+ * string) against the single verifyToken pass used now.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtBenchmark {
+
+    static final String SECRET = "c2VjcmV0LWtleS1mb3ItYmVuY2htYXJrcy1vbmx5LW5vdC1mb3ItcHJvZHVjdGlvbiE=";
+
+    private JwtUtil jwtUtil;
+    private UserDetails userDetails;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = newJwtUtil();
+        userDetails = User.builder()
+                .username("bench@example.com")
+                .password("{noop}unused")
+                .build();
+        token = jwtUtil.generateToken(userDetails);
+    }
+
+    static JwtUtil newJwtUtil() {
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "SECRET_KEY", SECRET);
+        ReflectionTestUtils.invokeMethod(jwtUtil, "init");
+        return jwtUtil;
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken(userDetails);
+    }
+
+    @Benchmark
+    public Boolean validateToken() {
+        return jwtUtil.validateToken(token, userDetails);
+    }
+
+    @Benchmark
+    public Claims verifyToken() {
+        return jwtUtil.verifyToken(token);
+    }
+
+    @Benchmark
+    @SuppressWarnings("deprecation")
+    public boolean legacyTripleParse() {
+        String email = Jwts.parser().setSigningKey(SECRET).parseClaimsJws(token).getBody().getSubject();
+        String subject = Jwts.parser().setSigningKey(SECRET).parseClaimsJws(token).getBody().getSubject();
+        Date expiration = Jwts.parser().setSigningKey(SECRET).parseClaimsJws(token).getBody().getExpiration();
+        return email.equals(userDetails.getUsername()) && subject.equals(email) && expiration.after(new Date());
+    }
+}
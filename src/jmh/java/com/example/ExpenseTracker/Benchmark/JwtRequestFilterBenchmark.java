@@ -0,0 +1,110 @@
+package com.example.ExpenseTracker.Benchmark;
+
+import com.example.ExpenseTracker.Entity.UserEntity;
+import com.example.ExpenseTracker.Filter.JwtRequestFilter;
+import com.example.ExpenseTracker.Filter.VerifiedTokenCache;
+import com.example.ExpenseTracker.Repository.UserRepository;
+import com.example.ExpenseTracker.Service.AppUserDetialsService;
+import com.example.ExpenseTracker.Util.JwtUtil;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+
+import java.security.Key;
+import java.time.Duration;
+import java.util.Date;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full authenticated-request filter pass with a no-op chain: token lookup, verified-token
+ * cache, principal cache and security-context population. bearerTokenRequest reuses one token,
+ * so it always hits the verified-token cache; bearerTokenRequestCacheMiss cycles through distinct
+ * tokens against a zero-sized cache, so every request pays for signature verification.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtRequestFilterBenchmark {
+
+    private static final String EMAIL = "bench@example.com";
+    private static final int DISTINCT_TOKENS = 1 << 16;
+
+    private JwtRequestFilter filter;
+    private JwtRequestFilter uncachedFilter;
+    private String token;
+    private String[] distinctTokens;
+    private int nextToken;
+    private final FilterChain chain = (request, response) -> { };
+
+    @Setup
+    public void setUp() {
+        JwtUtil jwtUtil = JwtBenchmark.newJwtUtil();
+        UserEntity user = UserEntity.builder()
+                .id(SampleData.OWNER_ID)
+                .email(EMAIL)
+                .password("$2a$10$benchmarkbenchmarkbenchmarkbenchmarkbenchmarkbenchm")
+                .build();
+        UserRepository userRepository = InMemoryRepositories.stub(UserRepository.class,
+                Map.of("findByEmail", args -> Optional.of(user)));
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AppUserDetialsService userDetailsService =
+                new AppUserDetialsService(userRepository, meterRegistry, 1000, Duration.ofMinutes(5));
+        VerifiedTokenCache verifiedTokenCache = new VerifiedTokenCache(jwtUtil, meterRegistry, 1000);
+        filter = new JwtRequestFilter(userDetailsService, verifiedTokenCache);
+        uncachedFilter = new JwtRequestFilter(userDetailsService,
+                new VerifiedTokenCache(jwtUtil, new SimpleMeterRegistry(), 0));
+
+        token = jwtUtil.generateToken(User.builder().username(EMAIL).password("unused").build());
+
+        // Same subject and key as the issued token, but a distinct id each, so no two share a cache key
+        Key signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(JwtBenchmark.SECRET));
+        Date issuedAt = new Date();
+        Date expiresAt = new Date(issuedAt.getTime() + Duration.ofHours(10).toMillis());
+        distinctTokens = new String[DISTINCT_TOKENS];
+        for (int i = 0; i < DISTINCT_TOKENS; i++) {
+            distinctTokens[i] = Jwts.builder()
+                    .setId(Integer.toString(i))
+                    .setSubject(EMAIL)
+                    .setIssuedAt(issuedAt)
+                    .setExpiration(expiresAt)
+                    .signWith(signingKey, SignatureAlgorithm.HS256)
+                    .compact();
+        }
+    }
+
+    @Benchmark
+    public MockHttpServletResponse bearerTokenRequest() throws Exception {
+        return authenticate(filter, token);
+    }
+
+    @Benchmark
+    public MockHttpServletResponse bearerTokenRequestCacheMiss() throws Exception {
+        String missToken = distinctTokens[nextToken++ & (DISTINCT_TOKENS - 1)];
+        return authenticate(uncachedFilter, missToken);
+    }
+
+    private MockHttpServletResponse authenticate(JwtRequestFilter target, String bearer) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/expense/page");
+        request.setServletPath("/expense/page");
+        request.addHeader("Authorization", "Bearer " + bearer);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        target.doFilter(request, response, chain);
+        SecurityContextHolder.clearContext();
+        return response;
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.ExpenseTracker.Benchmark;
+
+import com.example.ExpenseTracker.DTO.ChartPointDTO;
+import com.example.ExpenseTracker.Entity.Expense;
+import com.example.ExpenseTracker.Entity.Income;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+final class SampleData {
+
+    private static final String[] CATEGORIES = {"Food", "Rent", "Travel", "Bills", "Shopping", "Salary", "Other"};
+
+    static final Long OWNER_ID = 1L;
+
+    private SampleData() {
+    }
+
+    static List<Expense> expenses(int count) {
+        SplittableRandom random = new SplittableRandom(42);
+        LocalDate today = LocalDate.now();
+        List<Expense> expenses = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Expense expense = new Expense();
+            expense.setId((long) i + 1);
+            expense.setTitle("Expense " + i);
+            expense.setDescription("Benchmark expense number " + i);
+            expense.setCategory(CATEGORIES[random.nextInt(CATEGORIES.length)]);
+            expense.setDate(today.minusDays(random.nextInt(365)));
+            expense.setAmount(random.nextInt(1, 50_000));
+            expense.setOwnerId(OWNER_ID);
+            expenses.add(expense);
+        }
+        return expenses;
+    }
+
+    static List<Income> incomes(int count) {
+        SplittableRandom random = new SplittableRandom(7);
+        LocalDate today = LocalDate.now();
+        List<Income> incomes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Income income = new Income();
+            income.setId((long) i + 1);
+            income.setTitle("Income " + i);
+            income.setDescription("Benchmark income number " + i);
+            income.setCategory(CATEGORIES[random.nextInt(CATEGORIES.length)]);
+            income.setDate(today.minusDays(random.nextInt(365)));
+            income.setAmount(random.nextInt(1, 200_000));
+            income.setOwnerId(OWNER_ID);
+            incomes.add(income);
+        }
+        return incomes;
+    }
+
+    static List<ChartPointDTO> expensePoints(List<Expense> expenses) {
+        return expenses.stream()
+                .map(e -> new ChartPointDTO(e.getDate(), e.getAmount(), e.getCategory()))
+                .toList();
+    }
+
+    static List<ChartPointDTO> incomePoints(List<Income> incomes) {
+        return incomes.stream()
+                .map(i -> new ChartPointDTO(i.getDate(), i.getAmount(), i.getCategory()))
+                .toList();
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.ExpenseTracker.Benchmark;
+
+import com.example.ExpenseTracker.DTO.GraphDTO;
+import com.example.ExpenseTracker.DTO.StatsDTO;
+import com.example.ExpenseTracker.Entity.Expense;
+import com.example.ExpenseTracker.Entity.Income;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of the chart and stats payloads with the same ObjectMapper
+ * settings Spring Boot applies to HTTP responses. Output is discarded so only
+ * serialization cost is measured.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int rows;
+
+    private ObjectMapper objectMapper;
+    private GraphDTO graphDTO;
+    private Map<String, Object> legacyGraph;
+    private StatsDTO statsDTO;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        List<Expense> expenses = SampleData.expenses(rows / 2);
+        List<Income> incomes = SampleData.incomes(rows / 2);
+        graphDTO = new GraphDTO();
+        graphDTO.setExpenseList(SampleData.expensePoints(expenses));
+        graphDTO.setIncomeList(SampleData.incomePoints(incomes));
+        legacyGraph = Map.of("expenseList", expenses, "incomeList", incomes);
+
+        statsDTO = new StatsDTO();
+        statsDTO.setIncome(1_000_000.0);
+        statsDTO.setExpense(750_000.0);
+        statsDTO.setBalance(250_000.0);
+        statsDTO.setLatestIncome(incomes.get(0));
+        statsDTO.setLatestExpense(expenses.get(0));
+        statsDTO.setMinIncome(1.0);
+        statsDTO.setMaxIncome(199_999.0);
+        statsDTO.setMinExpense(1.0);
+        statsDTO.setMaxExpense(49_999.0);
+    }
+
+    @Benchmark
+    public void graphDto() throws IOException {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), graphDTO);
+    }
+
+    // Chart lists as full entities, the shape GraphDTO had before it carried projections
+    @Benchmark
+    public void legacyEntityGraph() throws IOException {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), legacyGraph);
+    }
+
+    @Benchmark
+    public void statsDto() throws IOException {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), statsDTO);
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.ExpenseTracker.Benchmark;
+
+import com.example.ExpenseTracker.DTO.RollupTotalsDTO;
+import com.example.ExpenseTracker.DTO.StatsDTO;
+import com.example.ExpenseTracker.Entity.Expense;
+import com.example.ExpenseTracker.Entity.Income;
+import com.example.ExpenseTracker.Entity.RollupType;
+import com.example.ExpenseTracker.Repository.DailyRollupRepository;
+import com.example.ExpenseTracker.Repository.ExpenseRepository;
+import com.example.ExpenseTracker.Repository.IncomeRepository;
+import com.example.ExpenseTracker.Service.Stats.StatsServiceImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * StatsServiceImpl.getStats on top of stubbed repositories. getStats reads pre-aggregated
+ * rollup totals and the latest record of each kind, so its cost does not depend on how many
+ * rows a user has; this measures the service's own work (two lookups plus DTO assembly), not
+ * the database aggregation behind the rollup query.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StatsServiceBenchmark {
+
+    private static final int SAMPLE_ROWS = 1000;
+
+    private StatsServiceImpl statsService;
+
+    @Setup
+    public void setUp() {
+        List<Income> incomes = SampleData.incomes(SAMPLE_ROWS);
+        List<Expense> expenses = SampleData.expenses(SAMPLE_ROWS);
+
+        RollupTotalsDTO incomeTotals = totals(RollupType.INCOME, incomes.stream().mapToInt(Income::getAmount).toArray());
+        RollupTotalsDTO expenseTotals = totals(RollupType.EXPENSE, expenses.stream().mapToInt(Expense::getAmount).toArray());
+        Income latestIncome = incomes.stream().max(Comparator.comparing(Income::getDate)).orElseThrow();
+        Expense latestExpense = expenses.stream().max(Comparator.comparing(Expense::getDate)).orElseThrow();
+
+        IncomeRepository incomeRepository = InMemoryRepositories.stub(IncomeRepository.class, Map.of(
+                "findFirstByOwnerIdOrderByDateDesc", args -> Optional.of(latestIncome)));
+        ExpenseRepository expenseRepository = InMemoryRepositories.stub(ExpenseRepository.class, Map.of(
+                "findFirstByOwnerIdOrderByDateDesc", args -> Optional.of(latestExpense)));
+        DailyRollupRepository dailyRollupRepository = InMemoryRepositories.stub(DailyRollupRepository.class, Map.of(
+                "getTotalsByType", args -> List.of(incomeTotals, expenseTotals)));
+
+        statsService = new StatsServiceImpl(incomeRepository, expenseRepository, dailyRollupRepository);
+    }
+
+    private static RollupTotalsDTO totals(RollupType type, int[] amounts) {
+        long total = 0;
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        for (int amount : amounts) {
+            total += amount;
+            min = Math.min(min, amount);
+            max = Math.max(max, amount);
+        }
+        return new RollupTotalsDTO(type, (long) amounts.length, total, min, max);
+    }
+
+    @Benchmark
+    public StatsDTO getStats() {
+        return statsService.getStats(SampleData.OWNER_ID);
+    }
+}
@@ -5,6 +5,7 @@ import com.example.ExpenseTracker.IO.AuthResponse;
 import com.example.ExpenseTracker.IO.ResetPasswordRequest;
 import com.example.ExpenseTracker.Service.AppUserDetialsService;
 import com.example.ExpenseTracker.Service.ProfileService;
+import com.example.ExpenseTracker.SpringConfig.PasswordHashingOverloadedException;
 import com.example.ExpenseTracker.Util.JwtUtil;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -72,6 +73,15 @@ public class AuthController {
             error.put("message", "Account is disabled");
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(error);
 
+        } catch (PasswordHashingOverloadedException ex) {
+            log.warn("Login shed - password hashing pool full for email: {}", request.getEmail());
+            Map<String, Object> error = new HashMap<>();
+            error.put("error", true);
+            error.put("message", ex.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(error);
+
         } catch (Exception ex) {
             log.error("Login failed for email: {}", request.getEmail(), ex);
             Map<String, Object> error = new HashMap<>();
@@ -140,6 +150,15 @@ public class AuthController {
             log.info("Password reset successfully for: {}", request.getEmail());
             return ResponseEntity.ok(response);
 
+        } catch (PasswordHashingOverloadedException e) {
+            log.warn("Password reset shed - password hashing pool full for: {}", request.getEmail());
+            Map<String, Object> error = new HashMap<>();
+            error.put("success", false);
+            error.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(error);
+
         } catch (Exception e) {
             log.error("Failed to reset password for: {}", request.getEmail(), e);
             Map<String, Object> error = new HashMap<>();
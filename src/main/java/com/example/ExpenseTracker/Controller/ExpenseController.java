@@ -1,14 +1,27 @@
 package com.example.ExpenseTracker.Controller;
 
+import com.example.ExpenseTracker.DTO.DataFormat;
 import com.example.ExpenseTracker.DTO.ExpenseDTO;
 import com.example.ExpenseTracker.Entity.Expense;
+import com.example.ExpenseTracker.Service.DataVersionService;
 import com.example.ExpenseTracker.Service.ExpenseService;
+import com.example.ExpenseTracker.Service.ExportService;
+import com.example.ExpenseTracker.Service.ImportService;
+import com.example.ExpenseTracker.Util.ETagUtil;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.CurrentSecurityContext;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.InputStream;
 
 @Slf4j
 @RestController
@@ -17,12 +30,17 @@ import org.springframework.web.bind.annotation.*;
 public class ExpenseController {
 
     private final ExpenseService expenseService;
+    private final ImportService importService;
+    private final ExportService exportService;
+    private final DataVersionService dataVersionService;
 
     @PostMapping
-    public ResponseEntity<?> postExpense(@RequestBody ExpenseDTO dto) {
+    public ResponseEntity<?> postExpense(
+            @CurrentSecurityContext(expression = "authentication.principal.id") Long ownerId,
+            @RequestBody ExpenseDTO dto) {
         log.info("Creating new expense: {}", dto.getTitle());
         try {
-            Expense createdExpense = expenseService.postExpense(dto);
+            Expense createdExpense = expenseService.postExpense(ownerId, dto);
             if (createdExpense != null) {
                 return ResponseEntity.status(HttpStatus.CREATED).body(createdExpense);
             } else {
@@ -34,22 +52,86 @@ public class ExpenseController {
         }
     }
 
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<?> importExpenses(
+            @CurrentSecurityContext(expression = "authentication.principal.id") Long ownerId,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) {
+        log.info("Importing expenses from {}", contentType);
+        try {
+            return ResponseEntity.ok(importService.importExpenses(ownerId, body, DataFormat.fromContentType(contentType)));
+        } catch (IllegalArgumentException ex) {
+            log.warn("Invalid expense import: {}", ex.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
+        } catch (Exception e) {
+            log.error("Error importing expenses: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Failed to import expenses");
+        }
+    }
+
+    // Rows are written by the async response thread, so the export transaction lives there too
+    @GetMapping("/export")
+    public ResponseEntity<?> exportExpenses(
+            @CurrentSecurityContext(expression = "authentication.principal.id") Long ownerId,
+            @RequestParam(defaultValue = "csv") String format) {
+        log.info("Exporting expenses as {}", format);
+        try {
+            DataFormat dataFormat = DataFormat.fromParameter(format);
+            StreamingResponseBody body = output -> exportService.exportExpenses(ownerId, output, dataFormat);
+            return ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType(dataFormat.getMediaType()))
+                    .header(HttpHeaders.CONTENT_DISPOSITION,
+                            "attachment; filename=\"expenses." + dataFormat.name().toLowerCase() + "\"")
+                    .body(body);
+        } catch (IllegalArgumentException ex) {
+            log.warn("Invalid expense export: {}", ex.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
+        }
+    }
+
     @GetMapping("/all")
-    public ResponseEntity<?> getAllExpenses() {
+    public ResponseEntity<?> getAllExpenses(
+            @CurrentSecurityContext(expression = "authentication.principal.id") Long ownerId,
+            WebRequest request) {
         log.info("Fetching all expenses");
         try {
-            return ResponseEntity.ok(expenseService.getAllExpenses());
+            return dataVersionService.inSnapshot(() -> ETagUtil.conditional(request,
+                    dataVersionService.getVersion(ownerId), () -> expenseService.getAllExpenses(ownerId)));
         } catch (Exception e) {
             log.error("Error fetching expenses: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Failed to fetch expenses");
         }
     }
 
+    @GetMapping("/page")
+    public ResponseEntity<?> getExpensePage(
+            @CurrentSecurityContext(expression = "authentication.principal.id") Long ownerId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            WebRequest request) {
+        log.info("Fetching expense page of size {}", size);
+        try {
+            return dataVersionService.inSnapshot(() -> ETagUtil.conditional(request,
+                    dataVersionService.getVersion(ownerId),
+                    () -> expenseService.getExpensePage(ownerId, cursor, size)));
+        } catch (IllegalArgumentException ex) {
+            log.warn("Invalid expense page request: {}", ex.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
+        } catch (Exception e) {
+            log.error("Error fetching expense page: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Failed to fetch expenses");
+        }
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<?> getExpenseById(@PathVariable Long id) {
+    public ResponseEntity<?> getExpenseById(
+            @CurrentSecurityContext(expression = "authentication.principal.id") Long ownerId,
+            @PathVariable Long id,
+            WebRequest request) {
         log.info("Fetching expense with id: {}", id);
         try {
-            return ResponseEntity.ok(expenseService.getExpenseById(id));
+            return ETagUtil.conditional(request, dataVersionService.getVersion(ownerId),
+                    () -> expenseService.getExpenseById(ownerId, id));
         } catch (EntityNotFoundException ex) {
             log.warn("Expense not found with id: {}", id);
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ex.getMessage());
@@ -60,28 +142,61 @@ public class ExpenseController {
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<?> updateExpense(@PathVariable Long id, @RequestBody ExpenseDTO expenseDTO) {
+    public ResponseEntity<?> updateExpense(
+            @CurrentSecurityContext(expression = "authentication.principal.id") Long ownerId,
+            @PathVariable Long id,
+            @RequestBody ExpenseDTO expenseDTO) {
         log.info("Updating expense with id: {}", id);
         try {
-            return ResponseEntity.ok(expenseService.updateExpense(id, expenseDTO));
+            return ResponseEntity.ok(expenseService.updateExpense(ownerId, id, expenseDTO));
         } catch (EntityNotFoundException ex) {
             log.warn("Expense not found with id: {}", id);
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ex.getMessage());
+        } catch (OptimisticLockingFailureException ex) {
+            log.warn("Concurrent modification of expense with id: {}", id);
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(ex.getMessage());
         } catch (Exception e) {
             log.error("Error updating expense: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Something went wrong!");
         }
     }
 
+    // Writes only the fields present in the body; answers 204 so no read-back is needed
+    @PatchMapping("/{id}")
+    public ResponseEntity<?> patchExpense(
+            @CurrentSecurityContext(expression = "authentication.principal.id") Long ownerId,
+            @PathVariable Long id,
+            @RequestBody ExpenseDTO expenseDTO) {
+        log.info("Patching expense with id: {}", id);
+        try {
+            expenseService.patchExpense(ownerId, id, expenseDTO);
+            return ResponseEntity.noContent().build();
+        } catch (EntityNotFoundException ex) {
+            log.warn("Expense not found with id: {}", id);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ex.getMessage());
+        } catch (OptimisticLockingFailureException ex) {
+            log.warn("Concurrent modification of expense with id: {}", id);
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(ex.getMessage());
+        } catch (Exception e) {
+            log.error("Error patching expense: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Something went wrong!");
+        }
+    }
+
     @DeleteMapping("/{id}")
-    public ResponseEntity<?> deleteExpense(@PathVariable Long id) {
+    public ResponseEntity<?> deleteExpense(
+            @CurrentSecurityContext(expression = "authentication.principal.id") Long ownerId,
+            @PathVariable Long id) {
         log.info("Deleting expense with id: {}", id);
         try {
-            expenseService.deleteExpense(id);
+            expenseService.deleteExpense(ownerId, id);
             return ResponseEntity.ok(null);
         } catch (EntityNotFoundException ex) {
             log.warn("Expense not found with id: {}", id);
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ex.getMessage());
+        } catch (OptimisticLockingFailureException ex) {
+            log.warn("Concurrent modification of expense with id: {}", id);
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(ex.getMessage());
         } catch (Exception e) {
             log.error("Error deleting expense: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Something went wrong!");
@@ -1,14 +1,27 @@
 package com.example.ExpenseTracker.Controller;
 
+import com.example.ExpenseTracker.DTO.DataFormat;
 import com.example.ExpenseTracker.DTO.IncomeDTO;
 import com.example.ExpenseTracker.Entity.Income;
+import com.example.ExpenseTracker.Service.DataVersionService;
+import com.example.ExpenseTracker.Service.ExportService;
+import com.example.ExpenseTracker.Service.ImportService;
 import com.example.ExpenseTracker.Service.IncomeService;
+import com.example.ExpenseTracker.Util.ETagUtil;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.CurrentSecurityContext;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.InputStream;
 
 @Slf4j
 @RestController
@@ -17,12 +30,17 @@ import org.springframework.web.bind.annotation.*;
 public class IncomeController {
 
     private final IncomeService incomeService;
+    private final ImportService importService;
+    private final ExportService exportService;
+    private final DataVersionService dataVersionService;
 
     @PostMapping
-    public ResponseEntity<?> postIncome(@RequestBody IncomeDTO incomeDTO) {
+    public ResponseEntity<?> postIncome(
+            @CurrentSecurityContext(expression = "authentication.principal.id") Long ownerId,
+            @RequestBody IncomeDTO incomeDTO) {
         log.info("Creating new income: {}", incomeDTO.getTitle());
         try {
-            Income createdIncome = incomeService.postIncome(incomeDTO);
+            Income createdIncome = incomeService.postIncome(ownerId, incomeDTO);
             if (createdIncome != null) {
                 return ResponseEntity.status(HttpStatus.CREATED).body(createdIncome);
             } else {
@@ -34,22 +52,85 @@ public class IncomeController {
         }
     }
 
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<?> importIncomes(
+            @CurrentSecurityContext(expression = "authentication.principal.id") Long ownerId,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) {
+        log.info("Importing incomes from {}", contentType);
+        try {
+            return ResponseEntity.ok(importService.importIncomes(ownerId, body, DataFormat.fromContentType(contentType)));
+        } catch (IllegalArgumentException ex) {
+            log.warn("Invalid income import: {}", ex.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
+        } catch (Exception e) {
+            log.error("Error importing incomes: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Failed to import incomes");
+        }
+    }
+
+    // Rows are written by the async response thread, so the export transaction lives there too
+    @GetMapping("/export")
+    public ResponseEntity<?> exportIncomes(
+            @CurrentSecurityContext(expression = "authentication.principal.id") Long ownerId,
+            @RequestParam(defaultValue = "csv") String format) {
+        log.info("Exporting incomes as {}", format);
+        try {
+            DataFormat dataFormat = DataFormat.fromParameter(format);
+            StreamingResponseBody body = output -> exportService.exportIncomes(ownerId, output, dataFormat);
+            return ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType(dataFormat.getMediaType()))
+                    .header(HttpHeaders.CONTENT_DISPOSITION,
+                            "attachment; filename=\"incomes." + dataFormat.name().toLowerCase() + "\"")
+                    .body(body);
+        } catch (IllegalArgumentException ex) {
+            log.warn("Invalid income export: {}", ex.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
+        }
+    }
+
     @GetMapping("/all")
-    public ResponseEntity<?> getAllIncomes() {
+    public ResponseEntity<?> getAllIncomes(
+            @CurrentSecurityContext(expression = "authentication.principal.id") Long ownerId,
+            WebRequest request) {
         log.info("Fetching all incomes");
         try {
-            return ResponseEntity.ok(incomeService.getAllIncomes());
+            return dataVersionService.inSnapshot(() -> ETagUtil.conditional(request,
+                    dataVersionService.getVersion(ownerId), () -> incomeService.getAllIncomes(ownerId)));
         } catch (Exception e) {
             log.error("Error fetching incomes: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Failed to fetch incomes");
         }
     }
 
+    @GetMapping("/page")
+    public ResponseEntity<?> getIncomePage(
+            @CurrentSecurityContext(expression = "authentication.principal.id") Long ownerId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            WebRequest request) {
+        log.info("Fetching income page of size {}", size);
+        try {
+            return dataVersionService.inSnapshot(() -> ETagUtil.conditional(request,
+                    dataVersionService.getVersion(ownerId), () -> incomeService.getIncomePage(ownerId, cursor, size)));
+        } catch (IllegalArgumentException ex) {
+            log.warn("Invalid income page request: {}", ex.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
+        } catch (Exception e) {
+            log.error("Error fetching income page: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Failed to fetch incomes");
+        }
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<?> getIncomeById(@PathVariable Long id) {
+    public ResponseEntity<?> getIncomeById(
+            @CurrentSecurityContext(expression = "authentication.principal.id") Long ownerId,
+            @PathVariable Long id,
+            WebRequest request) {
         log.info("Fetching income with id: {}", id);
         try {
-            return ResponseEntity.ok(incomeService.getIncomeById(id));
+            return ETagUtil.conditional(request, dataVersionService.getVersion(ownerId),
+                    () -> incomeService.getIncomeById(ownerId, id));
         } catch (EntityNotFoundException ex) {
             log.warn("Income not found with id: {}", id);
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ex.getMessage());
@@ -60,28 +141,61 @@ public class IncomeController {
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<?> updateIncome(@PathVariable Long id, @RequestBody IncomeDTO incomeDTO) {
+    public ResponseEntity<?> updateIncome(
+            @CurrentSecurityContext(expression = "authentication.principal.id") Long ownerId,
+            @PathVariable Long id,
+            @RequestBody IncomeDTO incomeDTO) {
         log.info("Updating income with id: {}", id);
         try {
-            return ResponseEntity.ok(incomeService.updateIncome(id, incomeDTO));
+            return ResponseEntity.ok(incomeService.updateIncome(ownerId, id, incomeDTO));
         } catch (EntityNotFoundException ex) {
             log.warn("Income not found with id: {}", id);
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ex.getMessage());
+        } catch (OptimisticLockingFailureException ex) {
+            log.warn("Concurrent modification of income with id: {}", id);
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(ex.getMessage());
         } catch (Exception e) {
             log.error("Error updating income: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Something went wrong!");
         }
     }
 
+    // Writes only the fields present in the body; answers 204 so no read-back is needed
+    @PatchMapping("/{id}")
+    public ResponseEntity<?> patchIncome(
+            @CurrentSecurityContext(expression = "authentication.principal.id") Long ownerId,
+            @PathVariable Long id,
+            @RequestBody IncomeDTO incomeDTO) {
+        log.info("Patching income with id: {}", id);
+        try {
+            incomeService.patchIncome(ownerId, id, incomeDTO);
+            return ResponseEntity.noContent().build();
+        } catch (EntityNotFoundException ex) {
+            log.warn("Income not found with id: {}", id);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ex.getMessage());
+        } catch (OptimisticLockingFailureException ex) {
+            log.warn("Concurrent modification of income with id: {}", id);
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(ex.getMessage());
+        } catch (Exception e) {
+            log.error("Error patching income: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Something went wrong!");
+        }
+    }
+
     @DeleteMapping("/{id}")
-    public ResponseEntity<?> deleteIncome(@PathVariable Long id) {
+    public ResponseEntity<?> deleteIncome(
+            @CurrentSecurityContext(expression = "authentication.principal.id") Long ownerId,
+            @PathVariable Long id) {
         log.info("Deleting income with id: {}", id);
         try {
-            incomeService.deleteIncome(id);
+            incomeService.deleteIncome(ownerId, id);
             return ResponseEntity.ok(null);
         } catch (EntityNotFoundException ex) {
             log.warn("Income not found with id: {}", id);
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ex.getMessage());
+        } catch (OptimisticLockingFailureException ex) {
+            log.warn("Concurrent modification of income with id: {}", id);
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(ex.getMessage());
         } catch (Exception e) {
             log.error("Error deleting income: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Something went wrong");
@@ -4,13 +4,16 @@ import com.example.ExpenseTracker.IO.ProfileRequest;
 import com.example.ExpenseTracker.IO.ProfileResponse;
 import com.example.ExpenseTracker.Service.EmailService;
 import com.example.ExpenseTracker.Service.ProfileService;
+import com.example.ExpenseTracker.SpringConfig.PasswordHashingOverloadedException;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.CurrentSecurityContext;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -31,12 +34,11 @@ public class ProfileController {
             ProfileResponse response = profileService.createProfile(request);
             log.info("Profile created successfully for: {}", response.getEmail());
 
-            // Send welcome email (don't let email failure break registration)
+            // Queue welcome email (don't let email failure break registration)
             try {
                 emailService.sendWelcomeEmail(response.getEmail(), response.getName());
-                log.info("Welcome email sent successfully to: {}", response.getEmail());
             } catch (Exception emailEx) {
-                log.error("Failed to send welcome email to {}: {}", response.getEmail(), emailEx.getMessage());
+                log.error("Failed to queue welcome email to {}: {}", response.getEmail(), emailEx.getMessage());
             }
 
             Map<String, Object> successResponse = new HashMap<>();
@@ -46,6 +48,26 @@ public class ProfileController {
 
             return ResponseEntity.status(HttpStatus.CREATED).body(successResponse);
 
+        } catch (PasswordHashingOverloadedException e) {
+            log.warn("Registration shed - password hashing pool full for email {}", request.getEmail());
+
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", true);
+            errorResponse.put("message", e.getMessage());
+
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(errorResponse);
+
+        } catch (ResponseStatusException e) {
+            log.warn("Registration rejected for email {}: {}", request.getEmail(), e.getReason());
+
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", true);
+            errorResponse.put("message", e.getReason());
+
+            return ResponseEntity.status(e.getStatusCode()).body(errorResponse);
+
         } catch (Exception e) {
             log.error("Registration failed for email {}: {}", request.getEmail(), e.getMessage());
 
@@ -1,11 +1,25 @@
 package com.example.ExpenseTracker.Controller;
 
+import com.example.ExpenseTracker.DTO.BreakdownDTO;
+import com.example.ExpenseTracker.DTO.BreakdownGrouping;
+import com.example.ExpenseTracker.DTO.BucketedChartDTO;
+import com.example.ExpenseTracker.DTO.ChartResolution;
 import com.example.ExpenseTracker.DTO.GraphDTO;
+import com.example.ExpenseTracker.Entity.RollupType;
+import com.example.ExpenseTracker.Service.DataVersionService;
 import com.example.ExpenseTracker.Service.Stats.StatsService;
+import com.example.ExpenseTracker.Util.ETagUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.CurrentSecurityContext;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
 
 @Slf4j
 @RestController
@@ -14,12 +28,17 @@ import org.springframework.web.bind.annotation.*;
 public class StatsController {
 
     private final StatsService statsService;
+    private final DataVersionService dataVersionService;
 
     @GetMapping("/chart")
-    public ResponseEntity<GraphDTO> getChartDetails() {
+    public ResponseEntity<GraphDTO> getChartDetails(
+            @CurrentSecurityContext(expression = "authentication.principal.id") Long ownerId,
+            WebRequest request) {
         log.info("Fetching chart data for last 180 days");
         try {
-            return ResponseEntity.ok(statsService.getChartData());
+            // The window ends today, so the date is part of the tag
+            return dataVersionService.inSnapshot(() -> ETagUtil.conditional(request,
+                    dataVersionService.getVersion(ownerId), () -> statsService.getChartData(ownerId), LocalDate.now()));
         } catch (Exception e) {
             log.error("Error fetching chart data: {}", e.getMessage());
             throw e;
@@ -27,21 +46,76 @@ public class StatsController {
     }
 
     @GetMapping("/chart/{days}")
-    public ResponseEntity<GraphDTO> getChartDetailsByDays(@PathVariable int days) {
+    public ResponseEntity<GraphDTO> getChartDetailsByDays(
+            @CurrentSecurityContext(expression = "authentication.principal.id") Long ownerId,
+            @PathVariable int days,
+            WebRequest request) {
         log.info("Fetching chart data for last {} days", days);
         try {
-            return ResponseEntity.ok(statsService.getChartDataByDays(days));
+            return dataVersionService.inSnapshot(() -> ETagUtil.conditional(request,
+                    dataVersionService.getVersion(ownerId),
+                    () -> statsService.getChartDataByDays(ownerId, days), LocalDate.now()));
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid chart window of {} days: {}", days, e.getMessage());
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
         } catch (Exception e) {
             log.error("Error fetching chart data for {} days: {}", days, e.getMessage());
             throw e;
         }
     }
 
+    @GetMapping("/chart/buckets")
+    public ResponseEntity<BucketedChartDTO> getBucketedChart(
+            @CurrentSecurityContext(expression = "authentication.principal.id") Long ownerId,
+            @RequestParam(defaultValue = "180") int days,
+            @RequestParam(required = false) ChartResolution resolution,
+            WebRequest request) {
+        log.info("Fetching bucketed chart data for last {} days at resolution {}", days, resolution);
+        try {
+            return dataVersionService.inSnapshot(() -> ETagUtil.conditional(request,
+                    dataVersionService.getVersion(ownerId),
+                    () -> statsService.getBucketedChart(ownerId, days, resolution), LocalDate.now()));
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid chart window of {} days: {}", days, e.getMessage());
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (Exception e) {
+            log.error("Error fetching bucketed chart data for {} days: {}", days, e.getMessage());
+            throw e;
+        }
+    }
+
+    @GetMapping("/breakdown")
+    public ResponseEntity<BreakdownDTO> getBreakdown(
+            @CurrentSecurityContext(expression = "authentication.principal.id") Long ownerId,
+            @RequestParam(defaultValue = "EXPENSE") RollupType type,
+            @RequestParam(defaultValue = "CATEGORY") BreakdownGrouping groupBy,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            WebRequest request) {
+        LocalDate endDate = to != null ? to : LocalDate.now();
+        LocalDate startDate = from != null ? from : endDate.minusYears(1);
+        log.info("Fetching {} breakdown by {} from {} to {}", type, groupBy, startDate, endDate);
+        try {
+            return dataVersionService.inSnapshot(() -> ETagUtil.conditional(request,
+                    dataVersionService.getVersion(ownerId),
+                    () -> statsService.getBreakdown(ownerId, type, groupBy, startDate, endDate), LocalDate.now()));
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid breakdown range {} to {}: {}", startDate, endDate, e.getMessage());
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (Exception e) {
+            log.error("Error fetching breakdown: {}", e.getMessage());
+            throw e;
+        }
+    }
+
     @GetMapping
-    public ResponseEntity<?> getStats() {
+    public ResponseEntity<?> getStats(
+            @CurrentSecurityContext(expression = "authentication.principal.id") Long ownerId,
+            WebRequest request) {
         log.info("Fetching statistics");
         try {
-            return ResponseEntity.ok(statsService.getStats());
+            return dataVersionService.inSnapshot(() -> ETagUtil.conditional(request,
+                    dataVersionService.getVersion(ownerId), () -> statsService.getStats(ownerId)));
         } catch (Exception e) {
             log.error("Error fetching statistics: {}", e.getMessage());
             throw e;
@@ -0,0 +1,15 @@
+package com.example.ExpenseTracker.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AmountRangeDTO {
+
+    private Integer minAmount;
+
+    private Integer maxAmount;
+}
@@ -0,0 +1,25 @@
+package com.example.ExpenseTracker.DTO;
+
+import com.example.ExpenseTracker.Entity.RollupType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BreakdownDTO {
+
+    private RollupType type;
+
+    private BreakdownGrouping groupBy;
+
+    private LocalDate startDate;
+
+    private LocalDate endDate;
+
+    private List<BreakdownRowDTO> rows;
+}
@@ -0,0 +1,7 @@
+package com.example.ExpenseTracker.DTO;
+
+public enum BreakdownGrouping {
+    CATEGORY,
+    MONTH,
+    CATEGORY_MONTH
+}
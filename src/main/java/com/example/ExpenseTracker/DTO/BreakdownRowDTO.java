@@ -0,0 +1,48 @@
+package com.example.ExpenseTracker.DTO;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.YearMonth;
+
+/**
+ * One group of a breakdown. Category or month is null when the breakdown is not grouped by it.
+ * The constructors are used by the GROUP BY constructor expressions in DailyRollupRepository.
+ */
+@Data
+@NoArgsConstructor
+public class BreakdownRowDTO {
+
+    private String category;
+
+    // yyyy-MM
+    private YearMonth month;
+
+    private long count;
+
+    private long total;
+
+    // Mean amount per transaction, not per day
+    private double average;
+
+    public BreakdownRowDTO(String category, Long count, Long total) {
+        this(category, null, count, total);
+    }
+
+    public BreakdownRowDTO(Integer year, Integer month, Long count, Long total) {
+        this(null, YearMonth.of(year, month), count, total);
+    }
+
+    public BreakdownRowDTO(String category, Integer year, Integer month, Long count, Long total) {
+        this(category, YearMonth.of(year, month), count, total);
+    }
+
+    private BreakdownRowDTO(String category, YearMonth month, Long count, Long total) {
+        // Rollups store "no category" as the empty string
+        this.category = category == null || category.isEmpty() ? null : category;
+        this.month = month;
+        this.count = count != null ? count : 0;
+        this.total = total != null ? total : 0;
+        this.average = this.count > 0 ? (double) this.total / this.count : 0.0;
+    }
+}
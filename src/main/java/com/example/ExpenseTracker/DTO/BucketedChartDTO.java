@@ -0,0 +1,22 @@
+package com.example.ExpenseTracker.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BucketedChartDTO {
+
+    private ChartResolution resolution;
+
+    private LocalDate startDate;
+
+    private LocalDate endDate;
+
+    private List<ChartBucketDTO> buckets;
+}
@@ -0,0 +1,22 @@
+package com.example.ExpenseTracker.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChartBucketDTO {
+
+    private LocalDate bucketStart;
+
+    private long expenseTotal;
+
+    private long incomeTotal;
+
+    // Number of expense and income transactions in the bucket
+    private long count;
+}
@@ -0,0 +1,23 @@
+package com.example.ExpenseTracker.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * One plotted transaction: only the columns the chart needs. Built by a JPQL constructor
+ * expression, so it is never a managed entity and carries no dirty-checking snapshot.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChartPointDTO {
+
+    private LocalDate date;
+
+    private int amount;
+
+    private String category;
+}
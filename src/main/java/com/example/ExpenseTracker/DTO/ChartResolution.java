@@ -0,0 +1,38 @@
+package com.example.ExpenseTracker.DTO;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+public enum ChartResolution {
+    DAY,
+    WEEK,
+    MONTH;
+
+    // Picks a resolution that keeps the series at roughly 30 points or fewer
+    public static ChartResolution forWindow(int days) {
+        if (days <= 31) {
+            return DAY;
+        }
+        if (days <= 186) {
+            return WEEK;
+        }
+        return MONTH;
+    }
+
+    public LocalDate bucketStart(LocalDate date) {
+        return switch (this) {
+            case DAY -> date;
+            case WEEK -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> date.withDayOfMonth(1);
+        };
+    }
+
+    public LocalDate nextBucket(LocalDate bucketStart) {
+        return switch (this) {
+            case DAY -> bucketStart.plusDays(1);
+            case WEEK -> bucketStart.plusWeeks(1);
+            case MONTH -> bucketStart.plusMonths(1);
+        };
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.ExpenseTracker.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageDTO<T> {
+
+    private List<T> items;
+
+    // Opaque token for the next page, null when there are no more rows
+    private String nextCursor;
+
+    private boolean hasMore;
+}
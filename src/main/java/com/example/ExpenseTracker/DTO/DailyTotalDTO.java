@@ -0,0 +1,19 @@
+package com.example.ExpenseTracker.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyTotalDTO {
+
+    private LocalDate date;
+
+    private Long count;
+
+    private Long total;
+}
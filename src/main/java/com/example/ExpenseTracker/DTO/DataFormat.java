@@ -0,0 +1,38 @@
+package com.example.ExpenseTracker.DTO;
+
+public enum DataFormat {
+    CSV("text/csv"),
+    NDJSON("application/x-ndjson");
+
+    private final String mediaType;
+
+    DataFormat(String mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    public static DataFormat fromParameter(String format) {
+        for (DataFormat value : values()) {
+            if (value.name().equalsIgnoreCase(format)) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported format: " + format + ". Use csv or ndjson");
+    }
+
+    public static DataFormat fromContentType(String contentType) {
+        if (contentType != null) {
+            String type = contentType.split(";")[0].trim();
+            for (DataFormat format : values()) {
+                if (format.mediaType.equalsIgnoreCase(type)) {
+                    return format;
+                }
+            }
+        }
+        throw new IllegalArgumentException("Unsupported content type: " + contentType
+                + ". Use text/csv or application/x-ndjson");
+    }
+}
@@ -1,15 +1,17 @@
 package com.example.ExpenseTracker.DTO;
 
-import com.example.ExpenseTracker.Entity.Expense;
-import com.example.ExpenseTracker.Entity.Income;
 import lombok.Data;
 
 import java.util.List;
 @Data
 public class GraphDTO {
 
-    private List<Expense> expenseList;
+    private List<ChartPointDTO> expenseList;
 
 
-    private List<Income> incomeList;
+    private List<ChartPointDTO> incomeList;
+
+    private List<DailyTotalDTO> expenseDaily;
+
+    private List<DailyTotalDTO> incomeDaily;
 }
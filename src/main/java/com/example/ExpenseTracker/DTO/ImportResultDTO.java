@@ -0,0 +1,31 @@
+package com.example.ExpenseTracker.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportResultDTO {
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        private long line;
+        private String message;
+    }
+
+    private long imported;
+
+    private long failed;
+
+    // Only the first errors are kept so memory stays constant for very large uploads
+    private List<RowError> errors = new ArrayList<>();
+
+    private boolean errorsTruncated;
+}
@@ -0,0 +1,23 @@
+package com.example.ExpenseTracker.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * The columns that place a transaction in a daily rollup bucket. Read before an update or delete so the
+ * rollups can be adjusted, and used as the condition of that write so a concurrent change is detected.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RollupKeyDTO {
+
+    private LocalDate date;
+
+    private String category;
+
+    private Integer amount;
+}
@@ -0,0 +1,22 @@
+package com.example.ExpenseTracker.DTO;
+
+import com.example.ExpenseTracker.Entity.RollupType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RollupTotalsDTO {
+
+    private RollupType type;
+
+    private Long count;
+
+    private Long total;
+
+    private Integer minAmount;
+
+    private Integer maxAmount;
+}
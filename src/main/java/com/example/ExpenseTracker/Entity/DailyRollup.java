@@ -0,0 +1,52 @@
+package com.example.ExpenseTracker.Entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+/**
+ * Pre-aggregated count/sum/min/max of expense or income amounts per user, day and category.
+ * Maintained in the same transaction as every write to the raw tables, so stats and
+ * charts read O(days) rows here instead of scanning every transaction.
+ * Rows with no category are stored under the empty string.
+ */
+@Entity
+@Table(name = "daily_rollup", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_rollup_owner_type_date_category",
+                columnNames = {"owner_id", "type", "rollup_date", "category"})
+}, indexes = {
+        @Index(name = "idx_rollup_owner_type_date_totals",
+                columnList = "owner_id, type, rollup_date, category, txn_count, total_amount")
+})
+@Data
+public class DailyRollup {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "owner_id", nullable = false)
+    private Long ownerId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type", nullable = false, length = 16)
+    private RollupType type;
+
+    @Column(name = "rollup_date", nullable = false)
+    private LocalDate rollupDate;
+
+    @Column(name = "category", nullable = false)
+    private String category;
+
+    @Column(name = "txn_count", nullable = false)
+    private Long txnCount;
+
+    @Column(name = "total_amount", nullable = false)
+    private Long totalAmount;
+
+    @Column(name = "min_amount", nullable = false)
+    private Integer minAmount;
+
+    @Column(name = "max_amount", nullable = false)
+    private Integer maxAmount;
+}
@@ -0,0 +1,10 @@
+package com.example.ExpenseTracker.Entity;
+
+public enum EmailStatus {
+    PENDING,
+    // Claimed by a dispatcher until next_attempt_at; reclaimed if that instance dies mid-send
+    IN_FLIGHT,
+    SENT,
+    // Gave up after the maximum number of attempts; kept for inspection until purged
+    DEAD
+}
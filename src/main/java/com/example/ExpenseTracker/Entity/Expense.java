@@ -1,11 +1,19 @@
 package com.example.ExpenseTracker.Entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDate;
 @Entity
-@Table(name = "expense")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@Table(name = "expense", indexes = {
+        @Index(name = "idx_expense_owner_date", columnList = "owner_id, date, id"),
+        @Index(name = "idx_expense_owner_category_date", columnList = "owner_id, category, date")
+})
 @Data
 public class Expense {
     @Id
@@ -17,4 +25,9 @@ public class Expense {
     private LocalDate date;
     private Integer amount;
 
+    // Id of the owning UserEntity; every query is scoped by it
+    @JsonIgnore
+    @Column(name = "owner_id", nullable = false)
+    private Long ownerId;
+
 }
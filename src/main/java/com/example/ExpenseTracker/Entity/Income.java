@@ -1,12 +1,20 @@
 package com.example.ExpenseTracker.Entity;
 
 import com.example.ExpenseTracker.DTO.IncomeDTO;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDate;
 @Entity
-@Table(name = "income")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@Table(name = "income", indexes = {
+        @Index(name = "idx_income_owner_date", columnList = "owner_id, date, id"),
+        @Index(name = "idx_income_owner_category_date", columnList = "owner_id, category, date")
+})
 @Data
 public class Income {
         @Id
@@ -23,6 +31,11 @@ public class Income {
 
         private String description;
 
+        // Id of the owning UserEntity; every query is scoped by it
+        @JsonIgnore
+        @Column(name = "owner_id", nullable = false)
+        private Long ownerId;
+
         public IncomeDTO getIncomeDTO(){
         IncomeDTO incomeDTO = new IncomeDTO();
         incomeDTO.setId(id);
@@ -17,6 +17,7 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 public class PendingRegistration {
 
+    private String userId;
     private String name;
     private String email;
     private String password; // Already encoded
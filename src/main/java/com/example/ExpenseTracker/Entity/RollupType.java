@@ -0,0 +1,6 @@
+package com.example.ExpenseTracker.Entity;
+
+public enum RollupType {
+    EXPENSE,
+    INCOME
+}
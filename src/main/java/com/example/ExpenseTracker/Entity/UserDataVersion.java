@@ -0,0 +1,21 @@
+package com.example.ExpenseTracker.Entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+/**
+ * Monotonic counter per user, incremented in the same transaction as every write to that
+ * user's expenses or incomes. Read endpoints derive their ETags from it, so a conditional
+ * GET costs one primary-key lookup here instead of a query over the raw tables.
+ */
+@Entity
+@Table(name = "user_data_version")
+@Data
+public class UserDataVersion {
+    @Id
+    @Column(name = "owner_id")
+    private Long ownerId;
+
+    @Column(name = "version", nullable = false)
+    private Long version;
+}
@@ -1,7 +1,6 @@
 package com.example.ExpenseTracker.Filter;
 
 import com.example.ExpenseTracker.Service.AppUserDetialsService;
-import com.example.ExpenseTracker.Util.JwtUtil;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.Cookie;
@@ -26,7 +25,7 @@ import java.util.List;
 public class JwtRequestFilter extends OncePerRequestFilter {
 
     private final AppUserDetialsService appUserDetialsService;
-    private final JwtUtil jwtUtil;
+    private final VerifiedTokenCache verifiedTokenCache;
 
     // Paths WITHOUT /api/v1.0 prefix (context path is stripped by Spring)
     private static final List<String> PUBLIC_URLS = Arrays.asList(
@@ -81,13 +80,15 @@ public class JwtRequestFilter extends OncePerRequestFilter {
         // 3. Validate token and set authentication
         if (jwt != null) {
             try {
-                email = jwtUtil.extractEmail(jwt);
+                // Signature is verified only the first time a token is seen
+                VerifiedTokenCache.VerifiedToken verified = verifiedTokenCache.verify(jwt);
+                email = verified.subject();
                 log.debug("JwtRequestFilter: Extracted email from JWT: {}", email);
 
                 if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
                     UserDetails userDetails = appUserDetialsService.loadUserByUsername(email);
 
-                    if (jwtUtil.validateToken(jwt, userDetails)) {
+                    if (verified.isValidFor(userDetails)) {
                         UsernamePasswordAuthenticationToken authenticationToken =
                                 new UsernamePasswordAuthenticationToken(
                                         userDetails,
@@ -0,0 +1,204 @@
+package com.example.ExpenseTracker.Filter;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token-bucket limits for the unauthenticated endpoints that cost BCrypt work or an SMTP send, or accept an OTP guess.
+ * Every request is charged against its client IP and, when one is supplied, against the target email,
+ * so neither a single address nor a single account can be hammered. Rejections get 429 with Retry-After.
+ */
+@Slf4j
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final Set<String> LIMITED_PATHS =
+            Set.of("/login", "/send-otp", "/send-reset-otp", "/verify-otp", "/reset-password");
+
+    // These take the email in a JSON body rather than a request parameter
+    private static final Set<String> JSON_BODY_PATHS = Set.of("/login", "/verify-otp", "/reset-password");
+
+    /** These bodies are a few hundred bytes; anything larger is not parsed for an email. */
+    private static final int MAX_BODY_BYTES = 4096;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final TokenBucketLimiter ipLimiter;
+    private final TokenBucketLimiter emailLimiter;
+    private final Map<String, Counter> rejections = new HashMap<>();
+    private final boolean enabled;
+
+    public RateLimitFilter(MeterRegistry meterRegistry,
+                           @Value("${rate-limit.enabled:true}") boolean enabled,
+                           @Value("${rate-limit.ip.capacity:20}") int ipCapacity,
+                           @Value("${rate-limit.ip.refill-period:PT1M}") Duration ipRefillPeriod,
+                           @Value("${rate-limit.email.capacity:5}") int emailCapacity,
+                           @Value("${rate-limit.email.refill-period:PT5M}") Duration emailRefillPeriod,
+                           @Value("${rate-limit.max-keys:100000}") long maxKeys,
+                           @Value("${rate-limit.idle-timeout:PT10M}") Duration idleTimeout) {
+        this.enabled = enabled;
+        this.ipLimiter = new TokenBucketLimiter(ipCapacity, ipRefillPeriod, maxKeys, idleTimeout);
+        this.emailLimiter = new TokenBucketLimiter(emailCapacity, emailRefillPeriod, maxKeys, idleTimeout);
+        ipLimiter.monitor(meterRegistry, "rate-limit.ip");
+        emailLimiter.monitor(meterRegistry, "rate-limit.email");
+        for (String path : LIMITED_PATHS) {
+            for (String key : new String[]{"ip", "email"}) {
+                rejections.put(path + key, Counter.builder("rate_limit.rejected")
+                        .description("Requests rejected with 429 by the public endpoint rate limiter")
+                        .tag("path", path)
+                        .tag("key", key)
+                        .register(meterRegistry));
+            }
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !"POST".equals(request.getMethod()) || !LIMITED_PATHS.contains(request.getServletPath());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        String path = request.getServletPath();
+
+        // Remote address only: X-Forwarded-For is client-controlled unless a trusted proxy rewrites it
+        long wait = ipLimiter.tryAcquire(request.getRemoteAddr());
+        if (wait > 0) {
+            reject(response, path, "ip", wait);
+            return;
+        }
+
+        HttpServletRequest forwarded = request;
+        String email = request.getParameter("email");
+        if (email == null && JSON_BODY_PATHS.contains(path)) {
+            ReplayableRequest replayable = new ReplayableRequest(request);
+            email = replayable.readEmail(objectMapper);
+            forwarded = replayable;
+        }
+        if (email != null && !email.isBlank()) {
+            wait = emailLimiter.tryAcquire(email.trim().toLowerCase(Locale.ROOT));
+            if (wait > 0) {
+                reject(response, path, "email", wait);
+                return;
+            }
+        }
+
+        filterChain.doFilter(forwarded, response);
+    }
+
+    private void reject(HttpServletResponse response, String path, String key, long waitNanos) throws IOException {
+        rejections.get(path + key).increment();
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        log.warn("RateLimitFilter: Rejected {} by {} limit, retry after {}s", path, key, retryAfterSeconds);
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType("application/json");
+        response.setCharacterEncoding("UTF-8");
+
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("success", false);
+        errorResponse.put("message", "Too many requests, try again in " + retryAfterSeconds + " seconds");
+        errorResponse.put("status", 429);
+        response.getWriter().write(objectMapper.writeValueAsString(errorResponse));
+        response.getWriter().flush();
+    }
+
+    /**
+     * Buffers a small JSON body so the email can be read here and the controller still sees the full body.
+     */
+    private static class ReplayableRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+        private final InputStream remainder;
+
+        ReplayableRequest(HttpServletRequest request) throws IOException {
+            super(request);
+            this.remainder = request.getInputStream();
+            this.body = remainder.readNBytes(MAX_BODY_BYTES + 1);
+        }
+
+        String readEmail(ObjectMapper objectMapper) {
+            if (body.length == 0 || body.length > MAX_BODY_BYTES) {
+                return null;
+            }
+            try {
+                JsonNode email = objectMapper.readTree(body).get("email");
+                return email != null && email.isTextual() ? email.asText() : null;
+            } catch (IOException e) {
+                return null;
+            }
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            // Oversized bodies were only partly buffered; the rest still comes from the original stream
+            InputStream in = new SequenceInputStream(new ByteArrayInputStream(body), remainder);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    try {
+                        return in.available() == 0;
+                    } catch (IOException e) {
+                        return true;
+                    }
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public int read() throws IOException {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) throws IOException {
+                    return in.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+        }
+    }
+}
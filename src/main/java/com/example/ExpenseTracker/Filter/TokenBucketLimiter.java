@@ -0,0 +1,68 @@
+package com.example.ExpenseTracker.Filter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-key token buckets held in a bounded Caffeine cache.
+ * Each bucket is a single {@link AtomicLong} holding its theoretical arrival time (GCRA), so
+ * acquiring a token is one CAS with no locks; Caffeine's striped map keeps contention between keys low.
+ * Keys untouched for longer than a full refill are evicted, which is indistinguishable from a full bucket.
+ */
+public class TokenBucketLimiter {
+
+    private final long nanosPerToken;
+    private final long burstNanos;
+    private final LongSupplier nanoClock;
+    private final Cache<String, AtomicLong> buckets;
+
+    public TokenBucketLimiter(int capacity, Duration refillPeriod, long maxKeys, Duration idleTimeout) {
+        this(capacity, refillPeriod, maxKeys, idleTimeout, System::nanoTime);
+    }
+
+    TokenBucketLimiter(int capacity, Duration refillPeriod, long maxKeys, Duration idleTimeout, LongSupplier nanoClock) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be at least 1");
+        }
+        this.nanosPerToken = Math.max(1, refillPeriod.toNanos() / capacity);
+        this.burstNanos = nanosPerToken * (capacity - 1);
+        this.nanoClock = nanoClock;
+        Duration fullRefill = refillPeriod.compareTo(idleTimeout) > 0 ? refillPeriod : idleTimeout;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(fullRefill)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Takes one token for {@code key}.
+     *
+     * @return 0 if the request is allowed, otherwise the nanoseconds until a token becomes available
+     */
+    public long tryAcquire(String key) {
+        AtomicLong arrival = buckets.get(key, k -> new AtomicLong(Long.MIN_VALUE));
+        while (true) {
+            long now = nanoClock.getAsLong();
+            long current = arrival.get();
+            long start = current == Long.MIN_VALUE || current - now < 0 ? now : current;
+            long wait = start - now - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (arrival.compareAndSet(current, start + nanosPerToken)) {
+                return 0;
+            }
+        }
+    }
+
+    public void monitor(MeterRegistry meterRegistry, String name) {
+        CaffeineCacheMetrics.monitor(meterRegistry, buckets, name);
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.ExpenseTracker.Filter;
+
+import com.example.ExpenseTracker.Util.JwtUtil;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded cache of JWTs whose signature has already been verified.
+ * Entries are keyed by a SHA-256 digest of the token (the raw token is never retained),
+ * expire exactly when the token does, and are evicted by size using Caffeine's W-TinyLFU policy.
+ * A hit skips HMAC verification and claim parsing entirely.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    public record VerifiedToken(String subject, long expiresAtMillis) {
+
+        public boolean isValidFor(UserDetails userDetails) {
+            return subject != null && subject.equals(userDetails.getUsername())
+                    && expiresAtMillis > System.currentTimeMillis();
+        }
+    }
+
+    private final JwtUtil jwtUtil;
+    private final Cache<String, VerifiedToken> cache;
+
+    public VerifiedTokenCache(JwtUtil jwtUtil, MeterRegistry meterRegistry,
+                              @Value("${jwt.cache.max-size:10000}") long maxSize) {
+        this.jwtUtil = jwtUtil;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+                        long remainingMillis = value.expiresAtMillis() - System.currentTimeMillis();
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMillis));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        // Exposes cache.gets (hit/miss), cache.size and cache.evictions tagged cache=jwt.verified-tokens
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwt.verified-tokens");
+    }
+
+    /**
+     * Returns the subject and expiry of a valid token, verifying it only on a cache miss.
+     *
+     * @throws io.jsonwebtoken.JwtException if the token is not in the cache and fails verification
+     */
+    public VerifiedToken verify(String token) {
+        return cache.get(digest(token), key -> {
+            Claims claims = jwtUtil.verifyToken(token);
+            return new VerifiedToken(claims.getSubject(), claims.getExpiration().getTime());
+        });
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(sha256.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.ExpenseTracker.Repository;
+
+import com.example.ExpenseTracker.DTO.BreakdownRowDTO;
+import com.example.ExpenseTracker.DTO.ChartBucketDTO;
+import com.example.ExpenseTracker.DTO.DailyTotalDTO;
+import com.example.ExpenseTracker.DTO.RollupTotalsDTO;
+import com.example.ExpenseTracker.Entity.DailyRollup;
+import com.example.ExpenseTracker.Entity.RollupType;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface DailyRollupRepository extends JpaRepository<DailyRollup, Long> {
+
+    // Atomic add of one transaction into its bucket; the row lock serialises concurrent writers.
+    // Native writes name the table they touch, otherwise Hibernate clears every second-level cache region
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "daily_rollup"))
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO daily_rollup (owner_id, type, rollup_date, category, txn_count, total_amount, min_amount, max_amount) " +
+            "VALUES (:ownerId, :type, :date, :category, 1, :amount, :amount, :amount) " +
+            "ON DUPLICATE KEY UPDATE txn_count = txn_count + 1, total_amount = total_amount + :amount, " +
+            "min_amount = LEAST(min_amount, :amount), max_amount = GREATEST(max_amount, :amount)",
+            nativeQuery = true)
+    void addToBucket(@Param("ownerId") Long ownerId, @Param("type") String type, @Param("date") LocalDate date,
+                     @Param("category") String category, @Param("amount") int amount);
+
+    // Merges a pre-aggregated group of transactions (bulk import) into its bucket
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "daily_rollup"))
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO daily_rollup (owner_id, type, rollup_date, category, txn_count, total_amount, min_amount, max_amount) " +
+            "VALUES (:ownerId, :type, :date, :category, :count, :total, :minAmount, :maxAmount) " +
+            "ON DUPLICATE KEY UPDATE txn_count = txn_count + :count, total_amount = total_amount + :total, " +
+            "min_amount = LEAST(min_amount, :minAmount), max_amount = GREATEST(max_amount, :maxAmount)",
+            nativeQuery = true)
+    void mergeIntoBucket(@Param("ownerId") Long ownerId, @Param("type") String type,
+                         @Param("date") LocalDate date, @Param("category") String category,
+                         @Param("count") long count, @Param("total") long total,
+                         @Param("minAmount") int minAmount, @Param("maxAmount") int maxAmount);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<DailyRollup> findByOwnerIdAndTypeAndRollupDateAndCategory(Long ownerId, RollupType type,
+                                                                      LocalDate rollupDate, String category);
+
+    // Income and expense totals in one statement: one row per type the owner has any rollups for
+    @Query("SELECT new com.example.ExpenseTracker.DTO.RollupTotalsDTO(" +
+            "r.type, SUM(r.txnCount), SUM(r.totalAmount), MIN(r.minAmount), MAX(r.maxAmount)) " +
+            "FROM DailyRollup r WHERE r.ownerId = :ownerId GROUP BY r.type")
+    List<RollupTotalsDTO> getTotalsByType(@Param("ownerId") Long ownerId);
+
+    @Query("SELECT new com.example.ExpenseTracker.DTO.DailyTotalDTO(r.rollupDate, SUM(r.txnCount), SUM(r.totalAmount)) " +
+            "FROM DailyRollup r WHERE r.ownerId = :ownerId AND r.type = :type AND r.rollupDate BETWEEN :startDate AND :endDate " +
+            "GROUP BY r.rollupDate ORDER BY r.rollupDate")
+    List<DailyTotalDTO> findDailyTotals(@Param("ownerId") Long ownerId,
+                                        @Param("type") RollupType type,
+                                        @Param("startDate") LocalDate startDate,
+                                        @Param("endDate") LocalDate endDate);
+
+    // Both series of the bucketed chart in one pass: expense and income pivoted into columns per day
+    @Query("SELECT new com.example.ExpenseTracker.DTO.ChartBucketDTO(r.rollupDate, " +
+            "SUM(CASE WHEN r.type = com.example.ExpenseTracker.Entity.RollupType.EXPENSE THEN r.totalAmount ELSE 0L END), " +
+            "SUM(CASE WHEN r.type = com.example.ExpenseTracker.Entity.RollupType.INCOME THEN r.totalAmount ELSE 0L END), " +
+            "SUM(r.txnCount)) " +
+            "FROM DailyRollup r WHERE r.ownerId = :ownerId AND r.rollupDate BETWEEN :startDate AND :endDate " +
+            "GROUP BY r.rollupDate ORDER BY r.rollupDate")
+    List<ChartBucketDTO> findDailyBuckets(@Param("ownerId") Long ownerId,
+                                          @Param("startDate") LocalDate startDate,
+                                          @Param("endDate") LocalDate endDate);
+
+    // Breakdowns group the per-day buckets, never individual transactions
+    @Query("SELECT new com.example.ExpenseTracker.DTO.BreakdownRowDTO(r.category, SUM(r.txnCount), SUM(r.totalAmount)) " +
+            "FROM DailyRollup r WHERE r.ownerId = :ownerId AND r.type = :type AND r.rollupDate BETWEEN :startDate AND :endDate " +
+            "GROUP BY r.category ORDER BY SUM(r.totalAmount) DESC")
+    List<BreakdownRowDTO> findCategoryBreakdown(@Param("ownerId") Long ownerId,
+                                                @Param("type") RollupType type,
+                                                @Param("startDate") LocalDate startDate,
+                                                @Param("endDate") LocalDate endDate);
+
+    @Query("SELECT new com.example.ExpenseTracker.DTO.BreakdownRowDTO(" +
+            "YEAR(r.rollupDate), MONTH(r.rollupDate), SUM(r.txnCount), SUM(r.totalAmount)) " +
+            "FROM DailyRollup r WHERE r.ownerId = :ownerId AND r.type = :type AND r.rollupDate BETWEEN :startDate AND :endDate " +
+            "GROUP BY YEAR(r.rollupDate), MONTH(r.rollupDate) ORDER BY YEAR(r.rollupDate), MONTH(r.rollupDate)")
+    List<BreakdownRowDTO> findMonthlyBreakdown(@Param("ownerId") Long ownerId,
+                                               @Param("type") RollupType type,
+                                               @Param("startDate") LocalDate startDate,
+                                               @Param("endDate") LocalDate endDate);
+
+    @Query("SELECT new com.example.ExpenseTracker.DTO.BreakdownRowDTO(" +
+            "r.category, YEAR(r.rollupDate), MONTH(r.rollupDate), SUM(r.txnCount), SUM(r.totalAmount)) " +
+            "FROM DailyRollup r WHERE r.ownerId = :ownerId AND r.type = :type AND r.rollupDate BETWEEN :startDate AND :endDate " +
+            "GROUP BY r.category, YEAR(r.rollupDate), MONTH(r.rollupDate) " +
+            "ORDER BY YEAR(r.rollupDate), MONTH(r.rollupDate), r.category")
+    List<BreakdownRowDTO> findCategoryMonthBreakdown(@Param("ownerId") Long ownerId,
+                                                     @Param("type") RollupType type,
+                                                     @Param("startDate") LocalDate startDate,
+                                                     @Param("endDate") LocalDate endDate);
+
+    // Backfill straight from the raw tables, one grouped INSERT ... SELECT per type
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "daily_rollup"))
+    @Modifying
+    @Query(value = "INSERT INTO daily_rollup (owner_id, type, rollup_date, category, txn_count, total_amount, min_amount, max_amount) " +
+            "SELECT e.owner_id, 'EXPENSE', e.date, COALESCE(e.category, ''), COUNT(*), SUM(COALESCE(e.amount, 0)), " +
+            "MIN(COALESCE(e.amount, 0)), MAX(COALESCE(e.amount, 0)) " +
+            "FROM expense e WHERE e.date IS NOT NULL GROUP BY e.owner_id, e.date, COALESCE(e.category, '')",
+            nativeQuery = true)
+    int rebuildExpenseRollups();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "daily_rollup"))
+    @Modifying
+    @Query(value = "INSERT INTO daily_rollup (owner_id, type, rollup_date, category, txn_count, total_amount, min_amount, max_amount) " +
+            "SELECT i.owner_id, 'INCOME', i.date, COALESCE(i.category, ''), COUNT(*), SUM(COALESCE(i.amount, 0)), " +
+            "MIN(COALESCE(i.amount, 0)), MAX(COALESCE(i.amount, 0)) " +
+            "FROM income i WHERE i.date IS NOT NULL GROUP BY i.owner_id, i.date, COALESCE(i.category, '')",
+            nativeQuery = true)
+    int rebuildIncomeRollups();
+
+}
@@ -0,0 +1,35 @@
+package com.example.ExpenseTracker.Repository;
+
+import com.example.ExpenseTracker.Entity.EmailOutbox;
+import com.example.ExpenseTracker.Entity.EmailStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+    // Lock timeout -2 is Hibernate's SKIP LOCKED, so several instances can claim from the outbox without double sends
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT m FROM EmailOutbox m WHERE m.status IN :statuses AND m.nextAttemptAt <= :now ORDER BY m.id")
+    List<EmailOutbox> findDue(@Param("statuses") Collection<EmailStatus> statuses, @Param("now") Long now,
+                              Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM EmailOutbox m WHERE m.status IN :statuses AND m.createdAt < :cutoff")
+    int deleteFinishedBefore(@Param("statuses") Collection<EmailStatus> statuses,
+                             @Param("cutoff") LocalDateTime cutoff);
+
+}
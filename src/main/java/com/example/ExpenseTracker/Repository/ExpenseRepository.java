@@ -1,21 +1,126 @@
 package com.example.ExpenseTracker.Repository;
 
+import com.example.ExpenseTracker.DTO.AmountRangeDTO;
+import com.example.ExpenseTracker.DTO.ChartPointDTO;
+import com.example.ExpenseTracker.DTO.RollupKeyDTO;
 import com.example.ExpenseTracker.Entity.Expense;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ExpenseRepository extends JpaRepository<Expense, Long> {
-    List<Expense> findByDateBetween(LocalDate startDate, LocalDate endDate);
+    // Every query is scoped to one owner and served from the (owner_id, date, id) index
+    // Chart read path: three columns instead of whole entities, nothing enters the persistence context
+    @Query("SELECT new com.example.ExpenseTracker.DTO.ChartPointDTO(e.date, COALESCE(e.amount, 0), e.category) " +
+            "FROM Expense e WHERE e.ownerId = :ownerId AND e.date BETWEEN :startDate AND :endDate ORDER BY e.date")
+    List<ChartPointDTO> findChartPoints(@Param("ownerId") Long ownerId,
+                                        @Param("startDate") LocalDate startDate,
+                                        @Param("endDate") LocalDate endDate);
 
-    @Query("SELECT SUM(e.amount) FROM Expense e")
-    Double sumAllAmounts();
+    // Read by the stats snapshot: no dirty-checking snapshot, and a replica row never seeds the second-level cache
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "GET")
+    })
+    Optional<Expense> findFirstByOwnerIdOrderByDateDesc(Long ownerId);
 
-    Optional<Expense> findFirstByOrderByDateDesc();
+    Optional<Expense> findByIdAndOwnerId(Long id, Long ownerId);
+
+    // Narrow read of the rollup columns; the conditional writes below compare against it
+    @Query("SELECT new com.example.ExpenseTracker.DTO.RollupKeyDTO(e.date, e.category, e.amount) " +
+            "FROM Expense e WHERE e.id = :id AND e.ownerId = :ownerId")
+    Optional<RollupKeyDTO> findRollupKey(@Param("id") Long id, @Param("ownerId") Long ownerId);
+
+    // Single-statement writes: the returned row count is 0 when the row is missing, not owned,
+    // or its rollup columns changed since findRollupKey (MySQL reports matched rows, so a no-op update still counts)
+    @Modifying
+    @Query("UPDATE Expense e SET e.title = :title, e.description = :description, e.category = :category, " +
+            "e.date = :date, e.amount = :amount " +
+            "WHERE e.id = :id AND e.ownerId = :ownerId AND e.date IS NOT DISTINCT FROM :oldDate " +
+            "AND e.category IS NOT DISTINCT FROM :oldCategory AND e.amount IS NOT DISTINCT FROM :oldAmount")
+    int replaceIfUnchanged(@Param("id") Long id, @Param("ownerId") Long ownerId,
+                           @Param("title") String title, @Param("description") String description,
+                           @Param("category") String category, @Param("date") LocalDate date,
+                           @Param("amount") Integer amount, @Param("oldDate") LocalDate oldDate,
+                           @Param("oldCategory") String oldCategory, @Param("oldAmount") Integer oldAmount);
+
+    // PATCH: null arguments keep the current value
+    @Modifying
+    @Query("UPDATE Expense e SET e.title = COALESCE(:title, e.title), " +
+            "e.description = COALESCE(:description, e.description), " +
+            "e.category = COALESCE(:category, e.category), e.date = COALESCE(:date, e.date), " +
+            "e.amount = COALESCE(:amount, e.amount) " +
+            "WHERE e.id = :id AND e.ownerId = :ownerId AND e.date IS NOT DISTINCT FROM :oldDate " +
+            "AND e.category IS NOT DISTINCT FROM :oldCategory AND e.amount IS NOT DISTINCT FROM :oldAmount")
+    int patchIfUnchanged(@Param("id") Long id, @Param("ownerId") Long ownerId,
+                         @Param("title") String title, @Param("description") String description,
+                         @Param("category") String category, @Param("date") LocalDate date,
+                         @Param("amount") Integer amount, @Param("oldDate") LocalDate oldDate,
+                         @Param("oldCategory") String oldCategory, @Param("oldAmount") Integer oldAmount);
+
+    // PATCH of text columns only: rollups are unaffected, so no prior read is needed
+    @Modifying
+    @Query("UPDATE Expense e SET e.title = COALESCE(:title, e.title), " +
+            "e.description = COALESCE(:description, e.description) " +
+            "WHERE e.id = :id AND e.ownerId = :ownerId")
+    int patchDetails(@Param("id") Long id, @Param("ownerId") Long ownerId,
+                     @Param("title") String title, @Param("description") String description);
+
+    @Modifying
+    @Query("DELETE FROM Expense e WHERE e.id = :id AND e.ownerId = :ownerId " +
+            "AND e.date IS NOT DISTINCT FROM :oldDate AND e.category IS NOT DISTINCT FROM :oldCategory " +
+            "AND e.amount IS NOT DISTINCT FROM :oldAmount")
+    int deleteIfUnchanged(@Param("id") Long id, @Param("ownerId") Long ownerId,
+                          @Param("oldDate") LocalDate oldDate, @Param("oldCategory") String oldCategory,
+                          @Param("oldAmount") Integer oldAmount);
+
+    // Listings may be served by a lagging replica, so their rows are never written into the second-level cache
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "GET"))
+    List<Expense> findAllByOwnerIdOrderByDateDescIdDesc(Long ownerId);
+
+    // Keyset pagination: first page. NULL dates sort lowest, so undated rows come last under DESC
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "GET"))
+    @Query("SELECT e FROM Expense e WHERE e.ownerId = :ownerId ORDER BY e.date DESC, e.id DESC")
+    List<Expense> findFirstPage(@Param("ownerId") Long ownerId, Pageable pageable);
+
+    // Keyset pagination: rows strictly after a dated (date, id) cursor, followed by the undated rows
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "GET"))
+    @Query("SELECT e FROM Expense e " +
+            "WHERE e.ownerId = :ownerId AND (e.date < :date OR (e.date = :date AND e.id < :id) OR e.date IS NULL) " +
+            "ORDER BY e.date DESC, e.id DESC")
+    List<Expense> findPageAfter(@Param("ownerId") Long ownerId, @Param("date") LocalDate date,
+                                @Param("id") Long id, Pageable pageable);
+
+    // Keyset pagination: rows after a cursor that ended on an undated row
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "GET"))
+    @Query("SELECT e FROM Expense e WHERE e.ownerId = :ownerId AND e.date IS NULL AND e.id < :id ORDER BY e.id DESC")
+    List<Expense> findUndatedPageAfter(@Param("ownerId") Long ownerId, @Param("id") Long id, Pageable pageable);
+
+    // Recomputes min/max of a single rollup bucket after a removal
+    @Query("SELECT new com.example.ExpenseTracker.DTO.AmountRangeDTO(MIN(COALESCE(e.amount, 0)), MAX(COALESCE(e.amount, 0))) " +
+            "FROM Expense e WHERE e.ownerId = :ownerId AND e.date = :date AND COALESCE(e.category, '') = :category")
+    AmountRangeDTO findAmountRange(@Param("ownerId") Long ownerId, @Param("date") LocalDate date,
+                                   @Param("category") String category);
+
+    // Forward-only cursor for exports: MIN_VALUE fetch size makes MySQL stream rows instead of buffering the result
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "-2147483648"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "GET")
+    })
+    @Query("SELECT e FROM Expense e WHERE e.ownerId = :ownerId ORDER BY e.date DESC, e.id DESC")
+    Stream<Expense> streamAllForExport(@Param("ownerId") Long ownerId);
 
 }
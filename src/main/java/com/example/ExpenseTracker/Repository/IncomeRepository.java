@@ -1,21 +1,126 @@
 package com.example.ExpenseTracker.Repository;
 
+import com.example.ExpenseTracker.DTO.AmountRangeDTO;
+import com.example.ExpenseTracker.DTO.ChartPointDTO;
+import com.example.ExpenseTracker.DTO.RollupKeyDTO;
 import com.example.ExpenseTracker.Entity.Income;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface IncomeRepository extends JpaRepository<Income, Long> {
-    List<Income> findByDateBetween(LocalDate startData, LocalDate endDate);
+    // Every query is scoped to one owner and served from the (owner_id, date, id) index
+    // Chart read path: three columns instead of whole entities, nothing enters the persistence context
+    @Query("SELECT new com.example.ExpenseTracker.DTO.ChartPointDTO(i.date, COALESCE(i.amount, 0), i.category) " +
+            "FROM Income i WHERE i.ownerId = :ownerId AND i.date BETWEEN :startDate AND :endDate ORDER BY i.date")
+    List<ChartPointDTO> findChartPoints(@Param("ownerId") Long ownerId,
+                                        @Param("startDate") LocalDate startDate,
+                                        @Param("endDate") LocalDate endDate);
 
-    @Query("SELECT SUM(i.amount) FROM Income i")
-    Double sumAllAmounts();
+    // Read by the stats snapshot: no dirty-checking snapshot, and a replica row never seeds the second-level cache
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "GET")
+    })
+    Optional<Income> findFirstByOwnerIdOrderByDateDesc(Long ownerId);
 
-    Optional<Income> findFirstByOrderByDateDesc();
+    Optional<Income> findByIdAndOwnerId(Long id, Long ownerId);
+
+    // Narrow read of the rollup columns; the conditional writes below compare against it
+    @Query("SELECT new com.example.ExpenseTracker.DTO.RollupKeyDTO(i.date, i.category, i.amount) " +
+            "FROM Income i WHERE i.id = :id AND i.ownerId = :ownerId")
+    Optional<RollupKeyDTO> findRollupKey(@Param("id") Long id, @Param("ownerId") Long ownerId);
+
+    // Single-statement writes: the returned row count is 0 when the row is missing, not owned,
+    // or its rollup columns changed since findRollupKey (MySQL reports matched rows, so a no-op update still counts)
+    @Modifying
+    @Query("UPDATE Income i SET i.title = :title, i.description = :description, i.category = :category, " +
+            "i.date = :date, i.amount = :amount " +
+            "WHERE i.id = :id AND i.ownerId = :ownerId AND i.date IS NOT DISTINCT FROM :oldDate " +
+            "AND i.category IS NOT DISTINCT FROM :oldCategory AND i.amount IS NOT DISTINCT FROM :oldAmount")
+    int replaceIfUnchanged(@Param("id") Long id, @Param("ownerId") Long ownerId,
+                           @Param("title") String title, @Param("description") String description,
+                           @Param("category") String category, @Param("date") LocalDate date,
+                           @Param("amount") Integer amount, @Param("oldDate") LocalDate oldDate,
+                           @Param("oldCategory") String oldCategory, @Param("oldAmount") Integer oldAmount);
+
+    // PATCH: null arguments keep the current value
+    @Modifying
+    @Query("UPDATE Income i SET i.title = COALESCE(:title, i.title), " +
+            "i.description = COALESCE(:description, i.description), " +
+            "i.category = COALESCE(:category, i.category), i.date = COALESCE(:date, i.date), " +
+            "i.amount = COALESCE(:amount, i.amount) " +
+            "WHERE i.id = :id AND i.ownerId = :ownerId AND i.date IS NOT DISTINCT FROM :oldDate " +
+            "AND i.category IS NOT DISTINCT FROM :oldCategory AND i.amount IS NOT DISTINCT FROM :oldAmount")
+    int patchIfUnchanged(@Param("id") Long id, @Param("ownerId") Long ownerId,
+                         @Param("title") String title, @Param("description") String description,
+                         @Param("category") String category, @Param("date") LocalDate date,
+                         @Param("amount") Integer amount, @Param("oldDate") LocalDate oldDate,
+                         @Param("oldCategory") String oldCategory, @Param("oldAmount") Integer oldAmount);
+
+    // PATCH of text columns only: rollups are unaffected, so no prior read is needed
+    @Modifying
+    @Query("UPDATE Income i SET i.title = COALESCE(:title, i.title), " +
+            "i.description = COALESCE(:description, i.description) " +
+            "WHERE i.id = :id AND i.ownerId = :ownerId")
+    int patchDetails(@Param("id") Long id, @Param("ownerId") Long ownerId,
+                     @Param("title") String title, @Param("description") String description);
+
+    @Modifying
+    @Query("DELETE FROM Income i WHERE i.id = :id AND i.ownerId = :ownerId " +
+            "AND i.date IS NOT DISTINCT FROM :oldDate AND i.category IS NOT DISTINCT FROM :oldCategory " +
+            "AND i.amount IS NOT DISTINCT FROM :oldAmount")
+    int deleteIfUnchanged(@Param("id") Long id, @Param("ownerId") Long ownerId,
+                          @Param("oldDate") LocalDate oldDate, @Param("oldCategory") String oldCategory,
+                          @Param("oldAmount") Integer oldAmount);
+
+    // Listings may be served by a lagging replica, so their rows are never written into the second-level cache
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "GET"))
+    List<Income> findAllByOwnerIdOrderByDateDescIdDesc(Long ownerId);
+
+    // Keyset pagination: first page. NULL dates sort lowest, so undated rows come last under DESC
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "GET"))
+    @Query("SELECT i FROM Income i WHERE i.ownerId = :ownerId ORDER BY i.date DESC, i.id DESC")
+    List<Income> findFirstPage(@Param("ownerId") Long ownerId, Pageable pageable);
+
+    // Keyset pagination: rows strictly after a dated (date, id) cursor, followed by the undated rows
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "GET"))
+    @Query("SELECT i FROM Income i " +
+            "WHERE i.ownerId = :ownerId AND (i.date < :date OR (i.date = :date AND i.id < :id) OR i.date IS NULL) " +
+            "ORDER BY i.date DESC, i.id DESC")
+    List<Income> findPageAfter(@Param("ownerId") Long ownerId, @Param("date") LocalDate date,
+                               @Param("id") Long id, Pageable pageable);
+
+    // Keyset pagination: rows after a cursor that ended on an undated row
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "GET"))
+    @Query("SELECT i FROM Income i WHERE i.ownerId = :ownerId AND i.date IS NULL AND i.id < :id ORDER BY i.id DESC")
+    List<Income> findUndatedPageAfter(@Param("ownerId") Long ownerId, @Param("id") Long id, Pageable pageable);
+
+    // Recomputes min/max of a single rollup bucket after a removal
+    @Query("SELECT new com.example.ExpenseTracker.DTO.AmountRangeDTO(MIN(COALESCE(i.amount, 0)), MAX(COALESCE(i.amount, 0))) " +
+            "FROM Income i WHERE i.ownerId = :ownerId AND i.date = :date AND COALESCE(i.category, '') = :category")
+    AmountRangeDTO findAmountRange(@Param("ownerId") Long ownerId, @Param("date") LocalDate date,
+                                   @Param("category") String category);
+
+    // Forward-only cursor for exports: MIN_VALUE fetch size makes MySQL stream rows instead of buffering the result
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "-2147483648"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "GET")
+    })
+    @Query("SELECT i FROM Income i WHERE i.ownerId = :ownerId ORDER BY i.date DESC, i.id DESC")
+    Stream<Income> streamAllForExport(@Param("ownerId") Long ownerId);
 
 }
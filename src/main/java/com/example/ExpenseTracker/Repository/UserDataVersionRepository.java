@@ -0,0 +1,29 @@
+package com.example.ExpenseTracker.Repository;
+
+import com.example.ExpenseTracker.Entity.UserDataVersion;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface UserDataVersionRepository extends JpaRepository<UserDataVersion, Long> {
+
+    // Creates the counter on a user's first write; the row lock orders concurrent bumps.
+    // The declared space keeps this native write from clearing the entity and query caches
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_data_version"))
+    @Modifying
+    @Query(value = "INSERT INTO user_data_version (owner_id, version) VALUES (:ownerId, 1) " +
+            "ON DUPLICATE KEY UPDATE version = version + 1",
+            nativeQuery = true)
+    void bump(@Param("ownerId") Long ownerId);
+
+    @Query("SELECT v.version FROM UserDataVersion v WHERE v.ownerId = :ownerId")
+    Optional<Long> findVersion(@Param("ownerId") Long ownerId);
+}
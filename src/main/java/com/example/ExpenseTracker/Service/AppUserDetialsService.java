@@ -2,28 +2,84 @@ package com.example.ExpenseTracker.Service;
 
 import com.example.ExpenseTracker.Entity.UserEntity;
 import com.example.ExpenseTracker.Repository.UserRepository;
-import lombok.RequiredArgsConstructor;
-import org.springframework.security.core.userdetails.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Service
-@RequiredArgsConstructor
 public class AppUserDetialsService implements UserDetailsService {
 
+    // Immutable snapshot; a fresh User is built per call because Spring Security
+    // erases credentials on the returned principal after authentication
+    private record CachedPrincipal(Long id, String email, String password) {
+    }
+
     private final UserRepository userRepository;
+    private final Cache<String, CachedPrincipal> principalCache;
+    // Bumped before every eviction; a load that saw an older value may have read a pre-eviction row
+    private final AtomicLong evictions = new AtomicLong();
+
+    public AppUserDetialsService(UserRepository userRepository, MeterRegistry meterRegistry,
+                                 @Value("${security.user-cache.max-size:10000}") long maxSize,
+                                 @Value("${security.user-cache.ttl:PT5M}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.principalCache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, principalCache, "security.user-details");
+    }
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        UserEntity user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
+        CachedPrincipal principal = principalCache.getIfPresent(email);
+        if (principal == null) {
+            // Loaded outside the cache's compute lock: a JDBC call inside it would pin virtual threads
+            long seen = evictions.get();
+            UserEntity user = userRepository.findByEmail(email)
+                    .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
+            CachedPrincipal loaded = new CachedPrincipal(user.getId(), user.getEmail(), user.getPassword());
+            // Cached only if no eviction started since the read. The check runs under the entry's lock, which an
+            // eviction also takes after bumping the counter, so a stale row can never land after its eviction
+            principalCache.asMap().compute(email, (key, existing) -> evictions.get() == seen ? loaded : existing);
+            principal = loaded;
+        }
 
-        // Return a Spring Security User with email + password
-        return User.builder()
-                .username(user.getEmail())
-                .password(user.getPassword())
-                .build();
+        // Return a Spring Security User with email + password, plus the id used to scope queries
+        return new AppUserPrincipal(principal.id(), principal.email(), principal.password());
+    }
+
+    /**
+     * Drops the cached principal for a user whose row has changed. When called inside a
+     * transaction the entry is evicted again after commit, so a concurrent request cannot
+     * re-cache the pre-commit row.
+     */
+    public void evict(String email) {
+        invalidate(email);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidate(email);
+                }
+            });
+        }
+    }
+
+    private void invalidate(String email) {
+        evictions.incrementAndGet();
+        principalCache.invalidate(email);
     }
 }
@@ -0,0 +1,21 @@
+package com.example.ExpenseTracker.Service;
+
+import lombok.Getter;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collections;
+
+/**
+ * Authenticated principal that also carries the database id of the user, so controllers
+ * can scope expense/income queries by owner without another lookup per request.
+ */
+@Getter
+public class AppUserPrincipal extends User {
+
+    private final Long id;
+
+    public AppUserPrincipal(Long id, String email, String password) {
+        super(email, password, Collections.emptyList());
+        this.id = id;
+    }
+}
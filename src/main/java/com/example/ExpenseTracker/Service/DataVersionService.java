@@ -0,0 +1,16 @@
+package com.example.ExpenseTracker.Service;
+
+import java.util.function.Supplier;
+
+public interface DataVersionService {
+
+    long getVersion(Long ownerId);
+
+    void bump(Long ownerId);
+
+    /**
+     * Runs {@code reads} in one read-only transaction, so a version read and the body it tags share one
+     * connection and one snapshot. With replica routing that also means one replica, or the primary for both.
+     */
+    <T> T inSnapshot(Supplier<T> reads);
+}
@@ -0,0 +1,36 @@
+package com.example.ExpenseTracker.Service;
+
+import com.example.ExpenseTracker.Repository.UserDataVersionRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.function.Supplier;
+
+@Service
+@RequiredArgsConstructor
+public class DataVersionServiceImpl implements DataVersionService {
+
+    private final UserDataVersionRepository userDataVersionRepository;
+
+    // Users who never wrote anything are at version 0
+    @Override
+    @Transactional(readOnly = true)
+    public long getVersion(Long ownerId) {
+        return userDataVersionRepository.findVersion(ownerId).orElse(0L);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public <T> T inSnapshot(Supplier<T> reads) {
+        return reads.get();
+    }
+
+    // Must join the writer's transaction so the new version becomes visible together with the data
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void bump(Long ownerId) {
+        userDataVersionRepository.bump(ownerId);
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.ExpenseTracker.Service;
+
+import com.example.ExpenseTracker.Entity.EmailOutbox;
+import com.example.ExpenseTracker.Entity.EmailStatus;
+import com.example.ExpenseTracker.Repository.EmailOutboxRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Drains the email outbox in the background. Each run claims a batch of due rows in a short
+ * transaction, hands them to JavaMailSender in a single send() call outside any transaction
+ * (one SMTP connection for the whole batch, no row locks or pooled connection held meanwhile),
+ * then records the outcome in a second transaction. Failed messages are retried with exponential
+ * backoff and moved to DEAD once they run out of attempts. Bodies carry OTPs, so they are cleared
+ * once sent and finished rows are purged after a retention period.
+ */
+@Slf4j
+@Service
+public class EmailOutboxDispatcher {
+
+    private static final List<EmailStatus> CLAIMABLE = List.of(EmailStatus.PENDING, EmailStatus.IN_FLIGHT);
+    private static final List<EmailStatus> FINISHED = List.of(EmailStatus.SENT, EmailStatus.DEAD);
+
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final JavaMailSender mailSender;
+    private final String fromEmail;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+    private final long leaseMillis;
+    private final Duration retention;
+
+    public EmailOutboxDispatcher(EmailOutboxRepository emailOutboxRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 JavaMailSender mailSender,
+                                 @Value("${spring.mail.properties.mail.smtp.from}") String fromEmail,
+                                 @Value("${email.outbox.batch-size:50}") int batchSize,
+                                 @Value("${email.outbox.max-attempts:8}") int maxAttempts,
+                                 @Value("${email.outbox.initial-backoff-ms:5000}") long initialBackoffMillis,
+                                 @Value("${email.outbox.max-backoff-ms:3600000}") long maxBackoffMillis,
+                                 @Value("${email.outbox.lease-ms:300000}") long leaseMillis,
+                                 @Value("${email.outbox.retention:P1D}") Duration retention) {
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.mailSender = mailSender;
+        this.fromEmail = fromEmail;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMillis = initialBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+        this.leaseMillis = leaseMillis;
+        this.retention = retention;
+    }
+
+    @Scheduled(fixedDelayString = "${email.outbox.poll-interval-ms:2000}")
+    public int dispatchDue() {
+        long now = System.currentTimeMillis();
+        List<EmailOutbox> due = transactionTemplate.execute(status -> claim(now));
+        if (due == null || due.isEmpty()) {
+            return 0;
+        }
+
+        // Identity map: SimpleMailMessage.equals compares content, and failures are keyed by the message instance
+        Map<SimpleMailMessage, EmailOutbox> batch = new IdentityHashMap<>();
+        for (EmailOutbox email : due) {
+            batch.put(toMessage(email), email);
+        }
+
+        Map<Object, Exception> failures = Map.of();
+        try {
+            mailSender.send(batch.keySet().toArray(new SimpleMailMessage[0]));
+        } catch (MailSendException e) {
+            failures = e.getFailedMessages();
+            if (failures.isEmpty()) {
+                failures = allFailed(batch, e);
+            }
+        } catch (Exception e) {
+            // Authentication or configuration problems fail the whole batch
+            failures = allFailed(batch, e);
+        }
+
+        int sent = 0;
+        long finishedAt = System.currentTimeMillis();
+        for (Map.Entry<SimpleMailMessage, EmailOutbox> entry : batch.entrySet()) {
+            EmailOutbox email = entry.getValue();
+            Exception failure = failures.get(entry.getKey());
+            if (failure == null) {
+                email.setStatus(EmailStatus.SENT);
+                email.setSentAt(LocalDateTime.now());
+                email.setLastError(null);
+                email.setBody("");
+                sent++;
+            } else {
+                markFailed(email, failure, finishedAt);
+            }
+        }
+        transactionTemplate.executeWithoutResult(status -> emailOutboxRepository.saveAll(due));
+
+        log.info("Email outbox: {} sent, {} failed", sent, due.size() - sent);
+        return sent;
+    }
+
+    @Scheduled(fixedDelayString = "${email.outbox.purge-interval-ms:3600000}")
+    public int purgeFinished() {
+        Integer purged = transactionTemplate.execute(status ->
+                emailOutboxRepository.deleteFinishedBefore(FINISHED, LocalDateTime.now().minus(retention)));
+        if (purged != null && purged > 0) {
+            log.info("Email outbox: purged {} sent or dead emails", purged);
+        }
+        return purged != null ? purged : 0;
+    }
+
+    // Rows stay IN_FLIGHT until the lease runs out, so a dispatcher that dies mid-send only delays them
+    private List<EmailOutbox> claim(long now) {
+        List<EmailOutbox> due = emailOutboxRepository.findDue(CLAIMABLE, now, PageRequest.of(0, batchSize));
+        for (EmailOutbox email : due) {
+            email.setStatus(EmailStatus.IN_FLIGHT);
+            email.setNextAttemptAt(now + leaseMillis);
+        }
+        emailOutboxRepository.saveAll(due);
+        return due;
+    }
+
+    private void markFailed(EmailOutbox email, Exception failure, long now) {
+        int attempts = email.getAttempts() + 1;
+        email.setAttempts(attempts);
+        email.setLastError(truncate(failure.getMessage()));
+
+        if (attempts >= maxAttempts) {
+            email.setStatus(EmailStatus.DEAD);
+            log.error("Email {} to {} dead-lettered after {} attempts: {}",
+                    email.getId(), email.getRecipient(), attempts, failure.getMessage());
+            return;
+        }
+
+        long backoff = Math.min(maxBackoffMillis, initialBackoffMillis << Math.min(attempts - 1, 30));
+        email.setStatus(EmailStatus.PENDING);
+        email.setNextAttemptAt(now + backoff);
+        log.warn("Email {} to {} failed (attempt {}), retrying in {} ms: {}",
+                email.getId(), email.getRecipient(), attempts, backoff, failure.getMessage());
+    }
+
+    private SimpleMailMessage toMessage(EmailOutbox email) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom(fromEmail);
+        message.setTo(email.getRecipient());
+        message.setReplyTo(fromEmail);
+        message.setSubject(email.getSubject());
+        message.setText(email.getBody());
+        return message;
+    }
+
+    private static Map<Object, Exception> allFailed(Map<SimpleMailMessage, EmailOutbox> batch, Exception e) {
+        Map<Object, Exception> failures = new IdentityHashMap<>();
+        batch.keySet().forEach(message -> failures.put(message, e));
+        return failures;
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() > 1000 ? message.substring(0, 1000) : message;
+    }
+}
@@ -1,60 +1,32 @@
 package com.example.ExpenseTracker.Service;
 
+import com.example.ExpenseTracker.Entity.EmailOutbox;
+import com.example.ExpenseTracker.Entity.EmailStatus;
+import com.example.ExpenseTracker.Repository.EmailOutboxRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+/**
+ * Queues outgoing emails in the outbox table. Nothing here talks to SMTP: the row commits
+ * together with the caller's transaction and EmailOutboxDispatcher delivers it afterwards.
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class EmailService {
 
-    private final JavaMailSender mailSender;
-
-    @Value("${spring.mail.properties.mail.smtp.from}")
-    private String fromEmail;
+    private final EmailOutboxRepository emailOutboxRepository;
 
+    @Transactional
     public void sendWelcomeEmail(String toEmail, String name) {
-        try {
-            log.info("Attempting to send welcome email to: {}", toEmail);
-
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom(fromEmail);
-            message.setTo(toEmail);
-            message.setReplyTo(fromEmail);
-            message.setSubject("Welcome to Expense Tracker!");
-            message.setText(buildWelcomeEmailText(name));
-
-            mailSender.send(message);
-            log.info("Welcome email sent successfully to: {}", toEmail);
-
-        } catch (Exception e) {
-            log.error("Failed to send welcome email to: {}. Error: {}", toEmail, e.getMessage(), e);
-            throw new RuntimeException("Failed to send welcome email: " + e.getMessage());
-        }
+        enqueue(toEmail, "Welcome to Expense Tracker!", buildWelcomeEmailText(name));
     }
 
+    @Transactional
     public void sendResetOtpEmail(String toEmail, String otp) {
-        try {
-            log.info("Attempting to send reset OTP email to: {}", toEmail);
-
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom(fromEmail);
-            message.setTo(toEmail);
-            message.setReplyTo(fromEmail);
-            message.setSubject("Password Reset OTP - Expense Tracker");
-            message.setText(buildResetOtpEmailText(otp));
-
-            mailSender.send(message);
-            log.info("Reset OTP email sent successfully to: {}", toEmail);
-
-        } catch (Exception e) {
-            log.error("Failed to send reset OTP email to: {}. Error: {}", toEmail, e.getMessage(), e);
-            throw new RuntimeException("Failed to send reset OTP email: " + e.getMessage());
-        }
+        enqueue(toEmail, "Password Reset OTP - Expense Tracker", buildResetOtpEmailText(otp));
     }
 
     private String buildWelcomeEmailText(String name) {
@@ -91,23 +63,34 @@ public class EmailService {
                 otp
         );
     }
+    @Transactional
     public void sendOtpEmail(String toEmail, String otp){
-        SimpleMailMessage message = new SimpleMailMessage();
-        message.setFrom(fromEmail);
-        message.setTo(toEmail);
-        message.setSubject("Account verification OTP");
-        message.setText(
-                "Hello,\n\n" +
-                        "Thank you for signing up with Expense Tracker!\n\n" +
-                        "Your OTP for account verification is: " + otp + "\n\n" +
-                        "This OTP will expire in 10 minutes for security reasons.\n\n" +
-                        "Please enter this code to complete your account verification and get started with managing your expenses.\n\n" +
-                        "If you did not create an account with us, please ignore this email.\n\n" +
-                        "Best regards,\n" +
-                        "Vyugam Solutions Team\n\n" +
-                        "---\n" +
-                        "This is an automated email. Please do not reply to this email."
-        );
-        mailSender.send(message);
+        enqueue(toEmail, "Account verification OTP", buildOtpEmailText(otp));
+    }
+
+    private String buildOtpEmailText(String otp) {
+        return "Hello,\n\n" +
+                "Thank you for signing up with Expense Tracker!\n\n" +
+                "Your OTP for account verification is: " + otp + "\n\n" +
+                "This OTP will expire in 10 minutes for security reasons.\n\n" +
+                "Please enter this code to complete your account verification and get started with managing your expenses.\n\n" +
+                "If you did not create an account with us, please ignore this email.\n\n" +
+                "Best regards,\n" +
+                "Vyugam Solutions Team\n\n" +
+                "---\n" +
+                "This is an automated email. Please do not reply to this email.";
+    }
+
+    private void enqueue(String toEmail, String subject, String text) {
+        EmailOutbox email = EmailOutbox.builder()
+                .recipient(toEmail)
+                .subject(subject)
+                .body(text)
+                .status(EmailStatus.PENDING)
+                .attempts(0)
+                .nextAttemptAt(System.currentTimeMillis())
+                .build();
+        emailOutboxRepository.save(email);
+        log.info("Queued email '{}' for: {}", subject, toEmail);
     }
 }
\ No newline at end of file
@@ -1,19 +1,24 @@
 package com.example.ExpenseTracker.Service;
 
 
+import com.example.ExpenseTracker.DTO.CursorPageDTO;
 import com.example.ExpenseTracker.DTO.ExpenseDTO;
 import com.example.ExpenseTracker.Entity.Expense;
 
 import java.util.List;
 
 public interface ExpenseService {
-    Expense postExpense(ExpenseDTO expenseDTO);
+    Expense postExpense(Long ownerId, ExpenseDTO expenseDTO);
 
-    List<Expense> getAllExpenses();
+    List<Expense> getAllExpenses(Long ownerId);
 
-    Expense getExpenseById(Long id);
+    CursorPageDTO<Expense> getExpensePage(Long ownerId, String cursor, int size);
 
-    Expense updateExpense(Long id ,ExpenseDTO expenseDTO);
+    Expense getExpenseById(Long ownerId, Long id);
 
-    void deleteExpense(Long id);
+    Expense updateExpense(Long ownerId, Long id ,ExpenseDTO expenseDTO);
+
+    void patchExpense(Long ownerId, Long id, ExpenseDTO patch);
+
+    void deleteExpense(Long ownerId, Long id);
 }
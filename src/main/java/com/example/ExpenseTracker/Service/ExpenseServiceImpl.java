@@ -1,25 +1,41 @@
 package com.example.ExpenseTracker.Service;
 
+import com.example.ExpenseTracker.DTO.CursorPageDTO;
 import com.example.ExpenseTracker.DTO.ExpenseDTO;
+import com.example.ExpenseTracker.DTO.RollupKeyDTO;
 import com.example.ExpenseTracker.Entity.Expense;
+import com.example.ExpenseTracker.Entity.RollupType;
 import com.example.ExpenseTracker.Repository.ExpenseRepository;
+import com.example.ExpenseTracker.Service.Stats.RollupService;
+import com.example.ExpenseTracker.Util.PageCursor;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class ExpenseServiceImpl implements  ExpenseService{
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final ExpenseRepository expenseRepository;
+    private final RollupService rollupService;
+    private final DataVersionService dataVersionService;
 
-    public Expense postExpense(ExpenseDTO expenseDTO){
-        return SaveOrUpdateExpense(new Expense(),expenseDTO);
+    @Transactional
+    public Expense postExpense(Long ownerId, ExpenseDTO expenseDTO){
+        Expense newExpense = new Expense();
+        newExpense.setOwnerId(ownerId);
+        Expense expense = SaveOrUpdateExpense(newExpense,expenseDTO);
+        rollupService.recordAddition(ownerId, RollupType.EXPENSE, expense.getDate(), expense.getCategory(), expense.getAmount());
+        dataVersionService.bump(ownerId);
+        return expense;
     }
 
 
@@ -35,15 +51,48 @@ public class ExpenseServiceImpl implements  ExpenseService{
         return expenseRepository.save(expense);
     }
     @Override
-    public List<Expense> getAllExpenses() {
-        return expenseRepository.findAll().stream()
-                .sorted(Comparator.comparing(Expense::getDate).reversed())
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public List<Expense> getAllExpenses(Long ownerId) {
+        return expenseRepository.findAllByOwnerIdOrderByDateDescIdDesc(ownerId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDTO<Expense> getExpensePage(Long ownerId, String cursor, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        // Fetch one extra row to know whether another page exists
+        PageRequest limit = PageRequest.of(0, size + 1);
+        List<Expense> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = expenseRepository.findFirstPage(ownerId, limit);
+        } else {
+            PageCursor after = PageCursor.decode(cursor);
+            rows = after.date() != null
+                    ? expenseRepository.findPageAfter(ownerId, after.date(), after.id(), limit)
+                    : expenseRepository.findUndatedPageAfter(ownerId, after.id(), limit);
+        }
+
+        boolean hasMore = rows.size() > size;
+        List<Expense> items = hasMore ? rows.subList(0, size) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            Expense last = items.get(items.size() - 1);
+            nextCursor = new PageCursor(last.getDate(), last.getId()).encode();
+        }
+        return new CursorPageDTO<>(items, nextCursor, hasMore);
     }
 
 
-    public Expense getExpenseById(Long id){
-        Optional<Expense> optionalExpense=expenseRepository.findById(id);
+    // Read-write on purpose: it keeps the lookup on the primary (Spring Data's findById is read-only by default and
+    // would be routed to a replica), and rows it loads may be put into the second-level cache
+    @Transactional
+    public Expense getExpenseById(Long ownerId, Long id){
+        // Primary-key lookup so the second-level cache can answer; another user's expense is reported as missing
+        Optional<Expense> optionalExpense=expenseRepository.findById(id)
+                .filter(expense -> ownerId.equals(expense.getOwnerId()));
         if(optionalExpense.isPresent()){
 
             return optionalExpense.get();
@@ -52,24 +101,70 @@ public class ExpenseServiceImpl implements  ExpenseService{
             throw new EntityNotFoundException("Expense is not present the id:"+id);
         }
     }
-    public Expense updateExpense(Long id , ExpenseDTO expenseDTO){
-        Optional<Expense> optionalExpense = expenseRepository.findById(id);
-        if(optionalExpense.isPresent()){
-            return SaveOrUpdateExpense(optionalExpense.get(),expenseDTO);
-        }
-        else{
-            throw new EntityNotFoundException("Expense is not present with the id:"+id);
-        }
+
+    @Transactional
+    public Expense updateExpense(Long ownerId, Long id, ExpenseDTO expenseDTO) {
+        RollupKeyDTO before = findRollupKey(ownerId, id);
+        checkWritten(expenseRepository.replaceIfUnchanged(id, ownerId, expenseDTO.getTitle(), expenseDTO.getDescription(),
+                expenseDTO.getCategory(), expenseDTO.getDate(), expenseDTO.getAmount(),
+                before.getDate(), before.getCategory(), before.getAmount()), id);
+
+        RollupKeyDTO after = new RollupKeyDTO(expenseDTO.getDate(), expenseDTO.getCategory(), expenseDTO.getAmount());
+        rollupService.recordChange(ownerId, RollupType.EXPENSE, before, after);
+        dataVersionService.bump(ownerId);
+
+        // Every column was just written from the DTO, so the result is built without re-reading the row
+        Expense updated = new Expense();
+        updated.setId(id);
+        updated.setOwnerId(ownerId);
+        updated.setTitle(expenseDTO.getTitle());
+        updated.setDescription(expenseDTO.getDescription());
+        updated.setCategory(expenseDTO.getCategory());
+        updated.setDate(expenseDTO.getDate());
+        updated.setAmount(expenseDTO.getAmount());
+        return updated;
     }
 
-    public void deleteExpense(Long id){
-        Optional<Expense> optionalExpense = expenseRepository.findById(id);
-        if(optionalExpense.isPresent()){
-            expenseRepository.deleteById(id);
+    @Override
+    @Transactional
+    public void patchExpense(Long ownerId, Long id, ExpenseDTO patch) {
+        if (patch.getDate() == null && patch.getCategory() == null && patch.getAmount() == null) {
+            // Rollup columns untouched: one UPDATE, and its row count alone separates 404 from success
+            if (expenseRepository.patchDetails(id, ownerId, patch.getTitle(), patch.getDescription()) == 0) {
+                throw new EntityNotFoundException("Expense is not present with id: " + id);
+            }
+        } else {
+            RollupKeyDTO before = findRollupKey(ownerId, id);
+            checkWritten(expenseRepository.patchIfUnchanged(id, ownerId, patch.getTitle(), patch.getDescription(),
+                    patch.getCategory(), patch.getDate(), patch.getAmount(),
+                    before.getDate(), before.getCategory(), before.getAmount()), id);
 
+            RollupKeyDTO after = new RollupKeyDTO(
+                    patch.getDate() != null ? patch.getDate() : before.getDate(),
+                    patch.getCategory() != null ? patch.getCategory() : before.getCategory(),
+                    patch.getAmount() != null ? patch.getAmount() : before.getAmount());
+            rollupService.recordChange(ownerId, RollupType.EXPENSE, before, after);
         }
-        else{
-            throw new EntityNotFoundException("Expense is not present with the id:"+id);
+        dataVersionService.bump(ownerId);
+    }
+
+    @Transactional
+    public void deleteExpense(Long ownerId, Long id) {
+        RollupKeyDTO before = findRollupKey(ownerId, id);
+        checkWritten(expenseRepository.deleteIfUnchanged(id, ownerId, before.getDate(), before.getCategory(), before.getAmount()), id);
+        rollupService.recordRemoval(ownerId, RollupType.EXPENSE, before.getDate(), before.getCategory(), before.getAmount());
+        dataVersionService.bump(ownerId);
+    }
+
+    private RollupKeyDTO findRollupKey(Long ownerId, Long id) {
+        return expenseRepository.findRollupKey(id, ownerId)
+                .orElseThrow(() -> new EntityNotFoundException("Expense is not present with id: " + id));
+    }
+
+    // Zero rows after a successful read means another request changed or deleted the row in between
+    private static void checkWritten(int rows, Long id) {
+        if (rows == 0) {
+            throw new OptimisticLockingFailureException("Expense " + id + " was modified concurrently, please retry");
         }
     }
 }
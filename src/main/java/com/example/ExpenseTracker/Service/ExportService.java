@@ -0,0 +1,13 @@
+package com.example.ExpenseTracker.Service;
+
+import com.example.ExpenseTracker.DTO.DataFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface ExportService {
+
+    long exportExpenses(Long ownerId, OutputStream output, DataFormat format) throws IOException;
+
+    long exportIncomes(Long ownerId, OutputStream output, DataFormat format) throws IOException;
+}
@@ -0,0 +1,132 @@
+package com.example.ExpenseTracker.Service;
+
+import com.example.ExpenseTracker.DTO.DataFormat;
+import com.example.ExpenseTracker.Entity.Expense;
+import com.example.ExpenseTracker.Entity.Income;
+import com.example.ExpenseTracker.Repository.ExpenseRepository;
+import com.example.ExpenseTracker.Repository.IncomeRepository;
+import com.example.ExpenseTracker.Util.CsvUtil;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes expenses or incomes to the response as CSV or NDJSON straight off a forward-only
+ * database cursor. Each row is detached once written, so the persistence context never
+ * grows and heap use stays flat however many rows the table holds. The header goes out
+ * before the first row is read, so clients see bytes as soon as the query starts.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ExportServiceImpl implements ExportService {
+
+    private static final String CSV_HEADER = "id,title,description,category,date,amount";
+    private static final int FLUSH_EVERY = 500;
+
+    private final ExpenseRepository expenseRepository;
+    private final IncomeRepository incomeRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportExpenses(Long ownerId, OutputStream output, DataFormat format) throws IOException {
+        Writer writer = open(output, format);
+        try (Stream<Expense> rows = expenseRepository.streamAllForExport(ownerId)) {
+            long written = 0;
+            Iterator<Expense> it = rows.iterator();
+            while (it.hasNext()) {
+                Expense expense = it.next();
+                if (format == DataFormat.CSV) {
+                    writeCsv(writer, expense.getId(), expense.getTitle(), expense.getDescription(),
+                            expense.getCategory(), String.valueOf(expense.getDate()), expense.getAmount());
+                } else {
+                    writeJson(writer, expense);
+                }
+                entityManager.detach(expense);
+                written = flushPeriodically(writer, written + 1);
+            }
+            writer.flush();
+            log.info("Exported {} expenses as {}", written, format);
+            return written;
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportIncomes(Long ownerId, OutputStream output, DataFormat format) throws IOException {
+        Writer writer = open(output, format);
+        try (Stream<Income> rows = incomeRepository.streamAllForExport(ownerId)) {
+            long written = 0;
+            Iterator<Income> it = rows.iterator();
+            while (it.hasNext()) {
+                Income income = it.next();
+                if (format == DataFormat.CSV) {
+                    writeCsv(writer, income.getId(), income.getTitle(), income.getDescription(),
+                            income.getCategory(), String.valueOf(income.getDate()), income.getAmount());
+                } else {
+                    writeJson(writer, income.getIncomeDTO());
+                }
+                entityManager.detach(income);
+                written = flushPeriodically(writer, written + 1);
+            }
+            writer.flush();
+            log.info("Exported {} incomes as {}", written, format);
+            return written;
+        }
+    }
+
+    private Writer open(OutputStream output, DataFormat format) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        if (format == DataFormat.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+        // Push the headers (and CSV header line) out before the query result arrives
+        writer.flush();
+        return writer;
+    }
+
+    private void writeCsv(Writer writer, Long id, String title, String description, String category,
+                          String date, Integer amount) throws IOException {
+        writer.write(String.valueOf(id));
+        writer.write(',');
+        writer.write(CsvUtil.escape(title));
+        writer.write(',');
+        writer.write(CsvUtil.escape(description));
+        writer.write(',');
+        writer.write(CsvUtil.escape(category));
+        writer.write(',');
+        writer.write(date);
+        writer.write(',');
+        writer.write(amount == null ? "" : amount.toString());
+        writer.write('\n');
+    }
+
+    private void writeJson(Writer writer, Object row) throws IOException {
+        // The shared writer must stay open across rows
+        objectMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET).writeValue(writer, row);
+        writer.write('\n');
+    }
+
+    private long flushPeriodically(Writer writer, long written) throws IOException {
+        if (written % FLUSH_EVERY == 0) {
+            writer.flush();
+        }
+        return written;
+    }
+}
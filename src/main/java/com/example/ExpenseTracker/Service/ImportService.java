@@ -0,0 +1,14 @@
+package com.example.ExpenseTracker.Service;
+
+import com.example.ExpenseTracker.DTO.DataFormat;
+import com.example.ExpenseTracker.DTO.ImportResultDTO;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface ImportService {
+
+    ImportResultDTO importExpenses(Long ownerId, InputStream input, DataFormat format) throws IOException;
+
+    ImportResultDTO importIncomes(Long ownerId, InputStream input, DataFormat format) throws IOException;
+}
@@ -0,0 +1,268 @@
+package com.example.ExpenseTracker.Service;
+
+import com.example.ExpenseTracker.DTO.DataFormat;
+import com.example.ExpenseTracker.DTO.ImportResultDTO;
+import com.example.ExpenseTracker.Entity.RollupType;
+import com.example.ExpenseTracker.Repository.DailyRollupRepository;
+import com.example.ExpenseTracker.Util.CsvUtil;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Streams CSV or NDJSON uploads line by line and writes them with JDBC batch inserts,
+ * one transaction per chunk. Heap use is bounded by the chunk size and the error cap,
+ * whatever the size of the upload. Invalid rows are reported and skipped; they never
+ * abort the rest of the stream.
+ *
+ * Inserts bypass Hibernate: with rewriteBatchedStatements=true the MySQL driver turns each
+ * batch into multi-row INSERTs, which works with the existing AUTO_INCREMENT ids. No cached
+ * query reads expense or income (aggregates come from daily_rollup, which mergeRollups keeps
+ * current), and new rows have no second-level cache entries to go stale.
+ */
+@Slf4j
+@Service
+public class ImportServiceImpl implements ImportService {
+
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    private static final int MAX_TEXT_LENGTH = 255;
+
+    private record ImportRow(long line, String title, String description, String category,
+                             LocalDate date, int amount) {
+    }
+
+    private record BucketKey(LocalDate date, String category) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final DailyRollupRepository dailyRollupRepository;
+    private final DataVersionService dataVersionService;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+
+    public ImportServiceImpl(JdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager,
+                             DailyRollupRepository dailyRollupRepository,
+                             DataVersionService dataVersionService,
+                             ObjectMapper objectMapper,
+                             @Value("${import.chunk-size:1000}") int chunkSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.dailyRollupRepository = dailyRollupRepository;
+        this.dataVersionService = dataVersionService;
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public ImportResultDTO importExpenses(Long ownerId, InputStream input, DataFormat format) throws IOException {
+        return importRows(ownerId, input, format, "expense", RollupType.EXPENSE);
+    }
+
+    @Override
+    public ImportResultDTO importIncomes(Long ownerId, InputStream input, DataFormat format) throws IOException {
+        return importRows(ownerId, input, format, "income", RollupType.INCOME);
+    }
+
+    private ImportResultDTO importRows(Long ownerId, InputStream input, DataFormat format, String table, RollupType type)
+            throws IOException {
+        String sql = "INSERT INTO " + table + " (title, description, category, date, amount, owner_id) VALUES (?, ?, ?, ?, ?, ?)";
+        ImportResultDTO result = new ImportResultDTO();
+        List<ImportRow> chunk = new ArrayList<>(chunkSize);
+        Map<String, Integer> csvHeader = null;
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        String line;
+        long lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            if (format == DataFormat.CSV && csvHeader == null) {
+                csvHeader = parseCsvHeader(line);
+                continue;
+            }
+
+            try {
+                chunk.add(format == DataFormat.CSV ? fromCsv(lineNumber, line, csvHeader) : fromJson(lineNumber, line));
+            } catch (Exception e) {
+                recordError(result, lineNumber, e.getMessage());
+                continue;
+            }
+
+            if (chunk.size() >= chunkSize) {
+                writeChunk(table, sql, ownerId, type, chunk, result);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            writeChunk(table, sql, ownerId, type, chunk, result);
+        }
+
+        log.info("Imported {} {} rows, {} failed", result.getImported(), table, result.getFailed());
+        return result;
+    }
+
+    private void writeChunk(String table, String sql, Long ownerId, RollupType type, List<ImportRow> chunk, ImportResultDTO result) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate(sql, chunk, chunk.size(), (ps, row) -> {
+                    ps.setString(1, row.title());
+                    ps.setString(2, row.description());
+                    ps.setString(3, row.category());
+                    ps.setDate(4, Date.valueOf(row.date()));
+                    ps.setInt(5, row.amount());
+                    ps.setLong(6, ownerId);
+                });
+                mergeRollups(ownerId, type, chunk);
+                dataVersionService.bump(ownerId);
+            });
+            result.setImported(result.getImported() + chunk.size());
+        } catch (Exception e) {
+            log.error("Import chunk at lines {}-{} failed: {}",
+                    chunk.get(0).line(), chunk.get(chunk.size() - 1).line(), e.getMessage());
+            for (ImportRow row : chunk) {
+                recordError(result, row.line(), "Batch write failed: " + e.getMessage());
+            }
+        }
+    }
+
+    // One upsert per (day, category) in the chunk instead of one per row
+    private void mergeRollups(Long ownerId, RollupType type, List<ImportRow> chunk) {
+        Map<BucketKey, long[]> buckets = new HashMap<>();
+        for (ImportRow row : chunk) {
+            BucketKey key = new BucketKey(row.date(), row.category() != null ? row.category() : "");
+            long[] agg = buckets.computeIfAbsent(key, k -> new long[]{0, 0, Long.MAX_VALUE, Long.MIN_VALUE});
+            agg[0]++;
+            agg[1] += row.amount();
+            agg[2] = Math.min(agg[2], row.amount());
+            agg[3] = Math.max(agg[3], row.amount());
+        }
+        buckets.forEach((key, agg) -> dailyRollupRepository.mergeIntoBucket(
+                ownerId, type.name(), key.date(), key.category(), agg[0], agg[1], (int) agg[2], (int) agg[3]));
+    }
+
+    private Map<String, Integer> parseCsvHeader(String line) {
+        List<String> columns = CsvUtil.parseLine(line);
+        Map<String, Integer> header = new HashMap<>();
+        for (int i = 0; i < columns.size(); i++) {
+            header.put(columns.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String required : List.of("title", "date", "amount")) {
+            if (!header.containsKey(required)) {
+                throw new IllegalArgumentException("CSV header must contain a '" + required + "' column");
+            }
+        }
+        return header;
+    }
+
+    private ImportRow fromCsv(long lineNumber, String line, Map<String, Integer> header) {
+        List<String> fields = CsvUtil.parseLine(line);
+        return toRow(lineNumber,
+                csvField(fields, header, "title"),
+                csvField(fields, header, "description"),
+                csvField(fields, header, "category"),
+                csvField(fields, header, "date"),
+                csvField(fields, header, "amount"));
+    }
+
+    private static String csvField(List<String> fields, Map<String, Integer> header, String column) {
+        Integer index = header.get(column);
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private ImportRow fromJson(long lineNumber, String line) throws IOException {
+        JsonNode node = objectMapper.readTree(line);
+        if (node == null || !node.isObject()) {
+            throw new IllegalArgumentException("Expected a JSON object");
+        }
+        JsonNode amount = node.get("amount");
+        if (amount != null && amount.isNumber() && !amount.isIntegralNumber()) {
+            throw new IllegalArgumentException("Amount must be a whole number");
+        }
+        return toRow(lineNumber,
+                jsonText(node, "title"),
+                jsonText(node, "description"),
+                jsonText(node, "category"),
+                jsonText(node, "date"),
+                jsonText(node, "amount"));
+    }
+
+    private static String jsonText(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    private static ImportRow toRow(long lineNumber, String title, String description, String category,
+                                   String date, String amount) {
+        if (title == null || title.isBlank()) {
+            throw new IllegalArgumentException("Title is required");
+        }
+        checkLength("title", title);
+        checkLength("description", description);
+        checkLength("category", category);
+        if (date == null) {
+            throw new IllegalArgumentException("Date is required");
+        }
+        if (amount == null) {
+            throw new IllegalArgumentException("Amount is required");
+        }
+
+        LocalDate parsedDate;
+        try {
+            parsedDate = LocalDate.parse(date);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Date must be in yyyy-MM-dd format");
+        }
+        int parsedAmount;
+        try {
+            parsedAmount = Integer.parseInt(amount);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Amount must be a whole number");
+        }
+        if (parsedAmount < 0) {
+            throw new IllegalArgumentException("Amount must not be negative");
+        }
+        return new ImportRow(lineNumber, title, description, category, parsedDate, parsedAmount);
+    }
+
+    private static void checkLength(String field, String value) {
+        if (value != null && value.length() > MAX_TEXT_LENGTH) {
+            throw new IllegalArgumentException(field + " must be at most " + MAX_TEXT_LENGTH + " characters");
+        }
+    }
+
+    private static void recordError(ImportResultDTO result, long line, String message) {
+        result.setFailed(result.getFailed() + 1);
+        if (result.getErrors().size() < MAX_REPORTED_ERRORS) {
+            result.getErrors().add(new ImportResultDTO.RowError(line, message));
+        } else {
+            result.setErrorsTruncated(true);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.ExpenseTracker.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Default single-node OTP store: a bounded Caffeine cache where each code expires exactly at its own TTL.
+ */
+@Component
+@ConditionalOnProperty(name = "otp.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryOtpStore implements OtpStore {
+
+    private record Entry(String otp, long ttlNanos) {
+    }
+
+    private final Cache<String, Entry> codes;
+
+    public InMemoryOtpStore(MeterRegistry meterRegistry,
+                            @Value("${otp.store.max-size:100000}") long maxSize) {
+        this.codes = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, Entry>() {
+                    @Override
+                    public long expireAfterCreate(String key, Entry value, long currentTime) {
+                        return value.ttlNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Entry value, long currentTime, long currentDuration) {
+                        return value.ttlNanos();
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Entry value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, codes, "otp.codes");
+    }
+
+    @Override
+    public void put(OtpPurpose purpose, String subject, String otp, Duration ttl) {
+        codes.put(key(purpose, subject), new Entry(otp, ttl.toNanos()));
+    }
+
+    @Override
+    public boolean consume(OtpPurpose purpose, String subject, String otp) {
+        String key = key(purpose, subject);
+        Entry entry = codes.getIfPresent(key);
+        // Remove only the exact entry that was compared, so a code is spent once even under concurrent calls
+        return entry != null && matches(entry.otp(), otp) && codes.asMap().remove(key, entry);
+    }
+
+    // Constant-time comparison so response timing does not reveal matching digits
+    private static boolean matches(String expected, String provided) {
+        return provided != null && MessageDigest.isEqual(
+                expected.getBytes(StandardCharsets.UTF_8), provided.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String key(OtpPurpose purpose, String subject) {
+        return purpose.name() + ':' + subject.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.ExpenseTracker.Service;
 
+import com.example.ExpenseTracker.DTO.CursorPageDTO;
 import com.example.ExpenseTracker.DTO.IncomeDTO;
 import com.example.ExpenseTracker.Entity.Income;
 
@@ -7,13 +8,17 @@ import java.util.List;
 
 public interface IncomeService {
 
-    Income postIncome(IncomeDTO incomeDTO);
+    Income postIncome(Long ownerId, IncomeDTO incomeDTO);
 
-    List<IncomeDTO> getAllIncomes();
+    List<IncomeDTO> getAllIncomes(Long ownerId);
 
-    Income updateIncome(Long id, IncomeDTO incomeDTO);
+    CursorPageDTO<IncomeDTO> getIncomePage(Long ownerId, String cursor, int size);
 
-    IncomeDTO getIncomeById(Long id);
+    Income updateIncome(Long ownerId, Long id, IncomeDTO incomeDTO);
 
-    void deleteIncome(Long id);
+    void patchIncome(Long ownerId, Long id, IncomeDTO patch);
+
+    IncomeDTO getIncomeById(Long ownerId, Long id);
+
+    void deleteIncome(Long ownerId, Long id);
 }
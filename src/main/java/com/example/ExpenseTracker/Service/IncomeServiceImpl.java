@@ -1,13 +1,20 @@
 package com.example.ExpenseTracker.Service;
 
+import com.example.ExpenseTracker.DTO.CursorPageDTO;
 import com.example.ExpenseTracker.DTO.IncomeDTO;
+import com.example.ExpenseTracker.DTO.RollupKeyDTO;
 import com.example.ExpenseTracker.Entity.Income;
+import com.example.ExpenseTracker.Entity.RollupType;
 import com.example.ExpenseTracker.Repository.IncomeRepository;
+import com.example.ExpenseTracker.Service.Stats.RollupService;
+import com.example.ExpenseTracker.Util.PageCursor;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -16,10 +23,20 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class IncomeServiceImpl implements IncomeService{
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final IncomeRepository incomeRepository;
+    private final RollupService rollupService;
+    private final DataVersionService dataVersionService;
 
-    public Income postIncome(IncomeDTO incomeDTO) {
-        return saveOrUpdateIncome(new Income(), incomeDTO);
+    @Transactional
+    public Income postIncome(Long ownerId, IncomeDTO incomeDTO) {
+        Income newIncome = new Income();
+        newIncome.setOwnerId(ownerId);
+        Income income = saveOrUpdateIncome(newIncome, incomeDTO);
+        rollupService.recordAddition(ownerId, RollupType.INCOME, income.getDate(), income.getCategory(), income.getAmount());
+        dataVersionService.bump(ownerId);
+        return income;
     }
 
     private Income saveOrUpdateIncome(Income income, IncomeDTO incomeDTO) {
@@ -32,39 +49,122 @@ public class IncomeServiceImpl implements IncomeService{
         return incomeRepository.save(income);
     }
 
-    public Income updateIncome(Long id, IncomeDTO incomeDTO) {
-        Optional<Income> optionalIncome = incomeRepository.findById(id);
-        if (optionalIncome.isPresent()) {
-            return saveOrUpdateIncome(optionalIncome.get(), incomeDTO);
+
+    @Transactional(readOnly = true)
+    public List<IncomeDTO> getAllIncomes(Long ownerId) {
+        return incomeRepository.findAllByOwnerIdOrderByDateDescIdDesc(ownerId).stream()
+                .map(Income::getIncomeDTO)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDTO<IncomeDTO> getIncomePage(Long ownerId, String cursor, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        // Fetch one extra row to know whether another page exists
+        PageRequest limit = PageRequest.of(0, size + 1);
+        List<Income> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = incomeRepository.findFirstPage(ownerId, limit);
         } else {
-            throw new EntityNotFoundException("Income is not present with id: " + id);
+            PageCursor after = PageCursor.decode(cursor);
+            rows = after.date() != null
+                    ? incomeRepository.findPageAfter(ownerId, after.date(), after.id(), limit)
+                    : incomeRepository.findUndatedPageAfter(ownerId, after.id(), limit);
         }
-    }
 
-    public List<IncomeDTO> getAllIncomes() {
-        return incomeRepository.findAll().stream()
-                .sorted(Comparator.comparing(Income::getDate).reversed())
+        boolean hasMore = rows.size() > size;
+        List<Income> page = hasMore ? rows.subList(0, size) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            Income last = page.get(page.size() - 1);
+            nextCursor = new PageCursor(last.getDate(), last.getId()).encode();
+        }
+        List<IncomeDTO> items = page.stream()
                 .map(Income::getIncomeDTO)
                 .collect(Collectors.toList());
+        return new CursorPageDTO<>(items, nextCursor, hasMore);
     }
 
-    public IncomeDTO getIncomeById(Long id) {
-        Optional<Income> optionalIncome = incomeRepository.findById(id);
+    // Kept on the primary for the same reason as ExpenseServiceImpl.getExpenseById
+    @Transactional
+    public IncomeDTO getIncomeById(Long ownerId, Long id) {
+        // Primary-key lookup so the second-level cache can answer; another user's income is reported as missing
+        Optional<Income> optionalIncome = incomeRepository.findById(id)
+                .filter(income -> ownerId.equals(income.getOwnerId()));
         if (optionalIncome.isPresent()) {
             return optionalIncome.get().getIncomeDTO();
         } else {
             throw new EntityNotFoundException("Income is not present with id: " + id);
         }
     }
-    public void deleteIncome(Long id){
-        Optional<Income> optionalIncome = incomeRepository.findById(id);
-        if(optionalIncome.isPresent()){
-            incomeRepository.deleteById(id);
-        }
-        else{
-            throw new EntityNotFoundException("Expense is not present with id"+id);
+
+    @Transactional
+    public Income updateIncome(Long ownerId, Long id, IncomeDTO incomeDTO) {
+        RollupKeyDTO before = findRollupKey(ownerId, id);
+        checkWritten(incomeRepository.replaceIfUnchanged(id, ownerId, incomeDTO.getTitle(), incomeDTO.getDescription(),
+                incomeDTO.getCategory(), incomeDTO.getDate(), incomeDTO.getAmount(),
+                before.getDate(), before.getCategory(), before.getAmount()), id);
+
+        RollupKeyDTO after = new RollupKeyDTO(incomeDTO.getDate(), incomeDTO.getCategory(), incomeDTO.getAmount());
+        rollupService.recordChange(ownerId, RollupType.INCOME, before, after);
+        dataVersionService.bump(ownerId);
+
+        // Every column was just written from the DTO, so the result is built without re-reading the row
+        Income updated = new Income();
+        updated.setId(id);
+        updated.setOwnerId(ownerId);
+        updated.setTitle(incomeDTO.getTitle());
+        updated.setDescription(incomeDTO.getDescription());
+        updated.setCategory(incomeDTO.getCategory());
+        updated.setDate(incomeDTO.getDate());
+        updated.setAmount(incomeDTO.getAmount());
+        return updated;
+    }
+
+    @Override
+    @Transactional
+    public void patchIncome(Long ownerId, Long id, IncomeDTO patch) {
+        if (patch.getDate() == null && patch.getCategory() == null && patch.getAmount() == null) {
+            // Rollup columns untouched: one UPDATE, and its row count alone separates 404 from success
+            if (incomeRepository.patchDetails(id, ownerId, patch.getTitle(), patch.getDescription()) == 0) {
+                throw new EntityNotFoundException("Income is not present with id: " + id);
+            }
+        } else {
+            RollupKeyDTO before = findRollupKey(ownerId, id);
+            checkWritten(incomeRepository.patchIfUnchanged(id, ownerId, patch.getTitle(), patch.getDescription(),
+                    patch.getCategory(), patch.getDate(), patch.getAmount(),
+                    before.getDate(), before.getCategory(), before.getAmount()), id);
+
+            RollupKeyDTO after = new RollupKeyDTO(
+                    patch.getDate() != null ? patch.getDate() : before.getDate(),
+                    patch.getCategory() != null ? patch.getCategory() : before.getCategory(),
+                    patch.getAmount() != null ? patch.getAmount() : before.getAmount());
+            rollupService.recordChange(ownerId, RollupType.INCOME, before, after);
         }
+        dataVersionService.bump(ownerId);
+    }
+
+    @Transactional
+    public void deleteIncome(Long ownerId, Long id) {
+        RollupKeyDTO before = findRollupKey(ownerId, id);
+        checkWritten(incomeRepository.deleteIfUnchanged(id, ownerId, before.getDate(), before.getCategory(), before.getAmount()), id);
+        rollupService.recordRemoval(ownerId, RollupType.INCOME, before.getDate(), before.getCategory(), before.getAmount());
+        dataVersionService.bump(ownerId);
     }
 
+    private RollupKeyDTO findRollupKey(Long ownerId, Long id) {
+        return incomeRepository.findRollupKey(id, ownerId)
+                .orElseThrow(() -> new EntityNotFoundException("Income is not present with id: " + id));
+    }
 
+    // Zero rows after a successful read means another request changed or deleted the row in between
+    private static void checkWritten(int rows, Long id) {
+        if (rows == 0) {
+            throw new OptimisticLockingFailureException("Income " + id + " was modified concurrently, please retry");
+        }
+    }
 }
@@ -0,0 +1,54 @@
+package com.example.ExpenseTracker.Service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * OTP store shared by every node, backed by the small otp_code table; its email column holds the subject.
+ * Lookups hit the (purpose, email) primary key; expired rows are ignored on read and purged in the background.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "otp.store", havingValue = "jdbc")
+public class JdbcOtpStore implements OtpStore {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void put(OtpPurpose purpose, String subject, String otp, Duration ttl) {
+        jdbcTemplate.update("INSERT INTO otp_code (purpose, email, code, expires_at) VALUES (?, ?, ?, ?) " +
+                        "ON DUPLICATE KEY UPDATE code = VALUES(code), expires_at = VALUES(expires_at)",
+                purpose.name(), normalize(subject), otp, System.currentTimeMillis() + ttl.toMillis());
+    }
+
+    // Single conditional DELETE: the row count tells whether this caller spent the code
+    @Override
+    public boolean consume(OtpPurpose purpose, String subject, String otp) {
+        if (otp == null) {
+            return false;
+        }
+        return jdbcTemplate.update(
+                "DELETE FROM otp_code WHERE purpose = ? AND email = ? AND code = ? AND expires_at > ?",
+                purpose.name(), normalize(subject), otp, System.currentTimeMillis()) == 1;
+    }
+
+    @Scheduled(fixedDelayString = "${otp.store.purge-interval-ms:300000}")
+    public void purgeExpired() {
+        int purged = jdbcTemplate.update("DELETE FROM otp_code WHERE expires_at <= ?", System.currentTimeMillis());
+        if (purged > 0) {
+            log.debug("JdbcOtpStore: Purged {} expired OTPs", purged);
+        }
+    }
+
+    private static String normalize(String subject) {
+        return subject.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,6 @@
+package com.example.ExpenseTracker.Service;
+
+public enum OtpPurpose {
+    VERIFY_EMAIL,
+    RESET_PASSWORD
+}
@@ -0,0 +1,23 @@
+package com.example.ExpenseTracker.Service;
+
+import java.time.Duration;
+
+/**
+ * Short-lived one-time passwords keyed by purpose and subject, kept apart from tb1_user.
+ * The subject is the email for password resets and the account's userId for email verification,
+ * so a verification code only ever activates the signup it was sent for.
+ * Expired codes are never accepted and are dropped automatically.
+ */
+public interface OtpStore {
+
+    /**
+     * Stores {@code otp}, replacing any earlier code for the same purpose and subject.
+     */
+    void put(OtpPurpose purpose, String subject, String otp, Duration ttl);
+
+    /**
+     * Atomically removes the code if it is unexpired and equal to {@code otp}.
+     * Of several concurrent callers presenting the same code, at most one gets {@code true}.
+     */
+    boolean consume(OtpPurpose purpose, String subject, String otp);
+}
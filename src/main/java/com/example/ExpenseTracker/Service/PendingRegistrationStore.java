@@ -0,0 +1,128 @@
+package com.example.ExpenseTracker.Service;
+
+import com.example.ExpenseTracker.Entity.PendingRegistration;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory home of signups that have not verified their email yet; nothing reaches tb1_user until the OTP checks out.
+ * Entries sit in a ConcurrentHashMap keyed by lower-cased email plus a FIFO of insertions. Because entries are
+ * queued in creation order, both the expiry sweep and the size cap only ever pop from the head (oldest first).
+ * Expired-then-replaced or removed entries leave a stale queue node behind, which is skipped when it reaches the head.
+ */
+@Slf4j
+@Component
+public class PendingRegistrationStore {
+
+    private final ConcurrentHashMap<String, PendingRegistration> registrations = new ConcurrentHashMap<>();
+    private final Queue<PendingRegistration> insertionOrder = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final int maxEntries;
+    private final Counter evicted;
+    private final Counter expired;
+
+    public PendingRegistrationStore(MeterRegistry meterRegistry,
+                                    @Value("${pending-registration.max-entries:50000}") int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.evicted = Counter.builder("pending_registration.evicted")
+                .description("Pending signups dropped to stay under the size cap")
+                .register(meterRegistry);
+        this.expired = Counter.builder("pending_registration.expired")
+                .description("Pending signups removed by the expiry sweep")
+                .register(meterRegistry);
+        Gauge.builder("pending_registration.size", registrations, ConcurrentHashMap::size)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Stores a signup unless an unexpired one for the same email is already pending, and evicts the oldest entries
+     * over the cap. A live entry is never replaced: its password hash is what the emailed OTP will activate.
+     *
+     * @return false if another signup for this email is still awaiting verification
+     */
+    public boolean putIfAbsent(PendingRegistration registration) {
+        PendingRegistration stored = registrations.compute(key(registration.getEmail()),
+                (email, existing) -> existing == null || existing.isExpired() ? registration : existing);
+        if (stored != registration) {
+            return false;
+        }
+        insertionOrder.add(registration);
+        if (queued.incrementAndGet() > maxEntries) {
+            evictOverCap();
+        }
+        return true;
+    }
+
+    /**
+     * Returns the pending signup for {@code email} unless it has expired.
+     */
+    public Optional<PendingRegistration> find(String email) {
+        PendingRegistration registration = registrations.get(key(email));
+        if (registration == null || registration.isExpired()) {
+            return Optional.empty();
+        }
+        return Optional.of(registration);
+    }
+
+    /**
+     * Atomically claims the given entry; only one caller can succeed, so a signup is persisted at most once.
+     */
+    public boolean remove(PendingRegistration registration) {
+        return registrations.remove(key(registration.getEmail()), registration);
+    }
+
+    @Scheduled(fixedDelayString = "${pending-registration.sweep-interval-ms:60000}")
+    public void sweepExpired() {
+        int removed = 0;
+        PendingRegistration head;
+        while ((head = insertionOrder.peek()) != null && head.isExpired()) {
+            if (insertionOrder.remove(head)) {
+                queued.decrementAndGet();
+            }
+            if (registrations.remove(key(head.getEmail()), head)) {
+                removed++;
+            }
+        }
+        if (removed > 0) {
+            expired.increment(removed);
+            log.debug("PendingRegistrationStore: Swept {} expired signups", removed);
+        }
+    }
+
+    private void evictOverCap() {
+        while (queued.get() > maxEntries) {
+            PendingRegistration oldest = pollOldest();
+            if (oldest == null) {
+                return;
+            }
+            if (registrations.remove(key(oldest.getEmail()), oldest)) {
+                evicted.increment();
+                log.warn("PendingRegistrationStore: Cap of {} reached, evicted signup for {}", maxEntries, oldest.getEmail());
+            }
+        }
+    }
+
+    private PendingRegistration pollOldest() {
+        PendingRegistration oldest = insertionOrder.poll();
+        if (oldest != null) {
+            queued.decrementAndGet();
+        }
+        return oldest;
+    }
+
+    private static String key(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+}
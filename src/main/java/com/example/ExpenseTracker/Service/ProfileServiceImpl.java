@@ -1,17 +1,22 @@
 package com.example.ExpenseTracker.Service;
 
+import com.example.ExpenseTracker.Entity.PendingRegistration;
 import com.example.ExpenseTracker.Entity.UserEntity;
 import com.example.ExpenseTracker.IO.ProfileRequest;
 import com.example.ExpenseTracker.IO.ProfileResponse;
 import com.example.ExpenseTracker.Repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.time.Duration;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.ThreadLocalRandom;
 
@@ -20,9 +25,14 @@ import java.util.concurrent.ThreadLocalRandom;
 @RequiredArgsConstructor
 public class ProfileServiceImpl implements ProfileService {
 
+    private static final Duration OTP_TTL = Duration.ofMinutes(10);
+
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final EmailService emailService;
+    private final AppUserDetialsService appUserDetialsService;
+    private final PendingRegistrationStore pendingRegistrationStore;
+    private final OtpStore otpStore;
 
     @Override
     public ProfileResponse createProfile(ProfileRequest request) {
@@ -34,19 +44,30 @@ public class ProfileServiceImpl implements ProfileService {
             throw new ResponseStatusException(HttpStatus.CONFLICT, "Email already exists");
         }
 
-        // Create new user entity
-        UserEntity newUser = convertToUserEntity(request);
-
-        try {
-            // Save user to database
-            newUser = userRepository.save(newUser);
-            log.info("User created successfully with ID: {}", newUser.getId());
+        // Checked before hashing so a repeat signup does not cost a BCrypt round; putIfAbsent below is the real guard
+        if (pendingRegistrationStore.find(request.getEmail()).isPresent()) {
+            throw pendingSignupConflict(request.getEmail());
+        }
 
-            return convertToProfileResponse(newUser);
-        } catch (Exception e) {
-            log.error("Error creating user: {}", e.getMessage());
-            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to create user");
+        // Held in memory until the email is verified; tb1_user only receives verified accounts
+        PendingRegistration pending = PendingRegistration.builder()
+                .userId(UUID.randomUUID().toString())
+                .name(request.getName())
+                .email(request.getEmail())
+                .password(passwordEncoder.encode(request.getPassword()))
+                .createdAt(System.currentTimeMillis())
+                .build();
+        if (!pendingRegistrationStore.putIfAbsent(pending)) {
+            throw pendingSignupConflict(request.getEmail());
         }
+        log.info("Pending registration stored for: {}", request.getEmail());
+
+        return ProfileResponse.builder()
+                .userId(pending.getUserId())
+                .name(pending.getName())
+                .email(pending.getEmail())
+                .isAccountVerified(false)
+                .build();
     }
 
     @Override
@@ -60,32 +81,25 @@ public class ProfileServiceImpl implements ProfileService {
     }
 
     @Override
+    @Transactional
     public void sendResetOtp(String email) {
         log.info("Sending reset OTP to email: {}", email);
 
-        UserEntity existingEntity = userRepository.findByEmail(email)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + email));
+        if (!userRepository.existsByEmail(email)) {
+            throw new UsernameNotFoundException("User not found: " + email);
+        }
 
-        // Generate 6 digit OTP
+        // Generate 6 digit OTP, valid for 10 minutes as stated in the email
         String otp = String.valueOf(ThreadLocalRandom.current().nextInt(100000, 1000000));
+        otpStore.put(OtpPurpose.RESET_PASSWORD, email, otp, OTP_TTL);
+        log.info("OTP generated and stored for user: {}", email);
 
-        // ✅ FIXED: Changed to 10 minutes to match email message
-        // Calculate Expiry time (current time + 10 minutes in milliseconds)
-        long expiryTime = System.currentTimeMillis() + (10 * 60 * 1000);
-
-        // Update the profile entity
-        existingEntity.setResetOtp(otp);
-        existingEntity.setResetOtpExpiresAt(expiryTime);
-
-        // Save into the database
-        userRepository.save(existingEntity);
-        log.info("OTP generated and saved for user: {}", email);
-
+        // Queued through the outbox; delivered by the outbox dispatcher
         try {
-            emailService.sendResetOtpEmail(existingEntity.getEmail(), otp);
-            log.info("Reset OTP email sent successfully to: {}", email);
+            emailService.sendResetOtpEmail(email, otp);
+            log.info("Reset OTP email queued for: {}", email);
         } catch (Exception ex) {
-            log.error("Unable to send email to: {}", email, ex);
+            log.error("Unable to queue email to: {}", email, ex);
             throw new RuntimeException("Unable to send the email. Please try again.");
         }
     }
@@ -94,29 +108,7 @@ public class ProfileServiceImpl implements ProfileService {
     public void resetPassword(String email, String otp, String newPassword) {
         log.info("Resetting password for email: {}", email);
 
-        UserEntity existingUser = userRepository.findByEmail(email)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + email));
-
-        // Validate OTP exists
-        if (existingUser.getResetOtp() == null || existingUser.getResetOtp().trim().isEmpty()) {
-            log.warn("No OTP found for user: {}", email);
-            throw new RuntimeException("No OTP found. Please request a new OTP.");
-        }
-
-        // Validate OTP matches
-        if (!existingUser.getResetOtp().equals(otp)) {
-            log.warn("Invalid OTP provided for user: {}", email);
-            throw new RuntimeException("Invalid OTP. Please check and try again.");
-        }
-
-        // Validate OTP is not expired
-        if (existingUser.getResetOtpExpiresAt() == null ||
-                existingUser.getResetOtpExpiresAt() < System.currentTimeMillis()) {
-            log.warn("OTP expired for user: {}", email);
-            throw new RuntimeException("OTP has expired. Please request a new OTP.");
-        }
-
-        // Validate new password
+        // Validate new password before spending the OTP
         if (newPassword == null || newPassword.trim().isEmpty()) {
             throw new RuntimeException("New password cannot be empty");
         }
@@ -125,56 +117,69 @@ public class ProfileServiceImpl implements ProfileService {
             throw new RuntimeException("Password must be at least 6 characters long");
         }
 
-        // Update password and clear OTP data
-        existingUser.setPassword(passwordEncoder.encode(newPassword));
-        existingUser.setResetOtp(null);
-        existingUser.setResetOtpExpiresAt(0L);
+        UserEntity existingUser = userRepository.findByEmail(email)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + email));
+
+        // Spent atomically: of two concurrent resets with the same code only one gets past here
+        if (!otpStore.consume(OtpPurpose.RESET_PASSWORD, email, otp)) {
+            log.warn("Invalid or expired OTP provided for user: {}", email);
+            throw new RuntimeException("Invalid OTP or it has expired. Please request a new OTP.");
+        }
 
+        // The user row is written only now that the reset actually completes
+        existingUser.setPassword(passwordEncoder.encode(newPassword));
         userRepository.save(existingUser);
+        appUserDetialsService.evict(email);
         log.info("Password reset successfully for user: {}", email);
     }
 
     @Override
+    @Transactional
     public void sendOtp(String email) {
-        UserEntity existingUser = userRepository.findByEmail(email)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found:"+ email));
-        if (existingUser.getIsAccountVerified() != null && existingUser.getIsAccountVerified()){
-            return;
+        // The code is bound to the account's userId, so it can only ever activate this signup
+        String subject;
+        Optional<PendingRegistration> pending = pendingRegistrationStore.find(email);
+        if (pending.isPresent()) {
+            subject = pending.get().getUserId();
+        } else {
+            UserEntity existingUser = userRepository.findByEmail(email)
+                    .orElseThrow(() -> new UsernameNotFoundException("User not found:" + email));
+            if (Boolean.TRUE.equals(existingUser.getIsAccountVerified())) {
+                return;
+            }
+            subject = existingUser.getUserId();
         }
-        // Generate 6 digit OTP
-        String otp = String.valueOf(ThreadLocalRandom.current().nextInt(100000, 1000000));
 
-        // Calculate Expiry time (current time + 24 hours in milliseconds)
-        long expiryTime = System.currentTimeMillis() + (24 * 60 * 60 * 1000);
-
-        // update the user entity
-        existingUser.setVerifyOtp(otp);
-        existingUser.setVerifyOtpExpireAt(expiryTime);
-        // save the database
-        userRepository.save(existingUser);
+        // Generate 6 digit OTP, valid for 10 minutes as stated in the email
+        String otp = String.valueOf(ThreadLocalRandom.current().nextInt(100000, 1000000));
+        otpStore.put(OtpPurpose.VERIFY_EMAIL, subject, otp, OTP_TTL);
 
-        try{
-            emailService.sendOtpEmail(existingUser.getEmail(),otp);
-        }catch (Exception e){
+        // Queued through the outbox; delivered by the outbox dispatcher
+        try {
+            emailService.sendOtpEmail(email, otp);
+        } catch (Exception e) {
             throw new RuntimeException("Unable to send email");
         }
     }
 
     @Override
     public void verifyOtp(String email, String otp) {
-        UserEntity existingUser = userRepository.findByEmail(email)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found:"+email));
-        if(existingUser.getVerifyOtp() == null || !existingUser.getVerifyOtp().equals(otp)){
-            throw new RuntimeException("Invalid OTP");
-        }
-        if(existingUser.getVerifyOtpExpireAt() < System.currentTimeMillis()){
-            throw new RuntimeException("OTP Expired");
+        Optional<PendingRegistration> pending = pendingRegistrationStore.find(email);
+        if (pending.isPresent()) {
+            if (!otpStore.consume(OtpPurpose.VERIFY_EMAIL, pending.get().getUserId(), otp)) {
+                throw new RuntimeException("Invalid OTP");
+            }
+            completeRegistration(pending.get());
+        } else {
+            UserEntity existingUser = userRepository.findByEmail(email)
+                    .orElseThrow(() -> new UsernameNotFoundException("User not found:" + email));
+            if (!otpStore.consume(OtpPurpose.VERIFY_EMAIL, existingUser.getUserId(), otp)) {
+                throw new RuntimeException("Invalid OTP");
+            }
+            existingUser.setIsAccountVerified(true);
+            userRepository.save(existingUser);
         }
-        existingUser.setIsAccountVerified(true);
-        existingUser.setVerifyOtp(null);
-        existingUser.setVerifyOtpExpireAt(0L);
-
-        userRepository.save(existingUser);
+        appUserDetialsService.evict(email);
     }
 
     @Override
@@ -193,17 +198,34 @@ public class ProfileServiceImpl implements ProfileService {
                 .build();
     }
 
-    private UserEntity convertToUserEntity(ProfileRequest request) {
-        return UserEntity.builder()
-                .userId(UUID.randomUUID().toString())
-                .name(request.getName())
-                .email(request.getEmail())
-                .password(passwordEncoder.encode(request.getPassword()))
-                .isAccountVerified(false)
+    private static ResponseStatusException pendingSignupConflict(String email) {
+        log.warn("Signup already pending verification: {}", email);
+        return new ResponseStatusException(HttpStatus.CONFLICT, "Email already exists");
+    }
+
+    private void completeRegistration(PendingRegistration pending) {
+        // Claiming the entry first means concurrent verifications insert the user only once
+        if (!pendingRegistrationStore.remove(pending)) {
+            throw new RuntimeException("Invalid OTP");
+        }
+
+        UserEntity newUser = UserEntity.builder()
+                .userId(pending.getUserId())
+                .name(pending.getName())
+                .email(pending.getEmail())
+                .password(pending.getPassword())
+                .isAccountVerified(true)
                 .verifyOtp(null)
                 .verifyOtpExpireAt(0L)
                 .resetOtp(null)
                 .resetOtpExpiresAt(0L)
                 .build();
+        try {
+            newUser = userRepository.save(newUser);
+        } catch (DataIntegrityViolationException e) {
+            log.warn("Email registered concurrently: {}", pending.getEmail());
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Email already exists");
+        }
+        log.info("Verified user created with ID: {}", newUser.getId());
     }
-}
\ No newline at end of file
+}
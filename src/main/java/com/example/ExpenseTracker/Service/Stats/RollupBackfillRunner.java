@@ -0,0 +1,31 @@
+package com.example.ExpenseTracker.Service.Stats;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * Backfills the daily rollup table at startup. Runs automatically on the first start
+ * against existing data, or on every start when stats.rollup.rebuild-on-startup=true
+ * (e.g. after manual edits to the expense/income tables).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RollupBackfillRunner implements ApplicationRunner {
+
+    private final RollupService rollupService;
+
+    @Value("${stats.rollup.rebuild-on-startup:false}")
+    private boolean rebuildOnStartup;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (rebuildOnStartup || rollupService.needsBackfill()) {
+            rollupService.rebuild();
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.ExpenseTracker.Service.Stats;
+
+import com.example.ExpenseTracker.DTO.RollupKeyDTO;
+import com.example.ExpenseTracker.Entity.RollupType;
+
+import java.time.LocalDate;
+
+public interface RollupService {
+
+    void recordAddition(Long ownerId, RollupType type, LocalDate date, String category, Integer amount);
+
+    void recordRemoval(Long ownerId, RollupType type, LocalDate date, String category, Integer amount);
+
+    /**
+     * Moves one row from its old bucket to its new one; does nothing when date, category and amount are unchanged.
+     */
+    void recordChange(Long ownerId, RollupType type, RollupKeyDTO before, RollupKeyDTO after);
+
+    void rebuild();
+
+    boolean needsBackfill();
+}
@@ -0,0 +1,108 @@
+package com.example.ExpenseTracker.Service.Stats;
+
+import com.example.ExpenseTracker.DTO.AmountRangeDTO;
+import com.example.ExpenseTracker.DTO.RollupKeyDTO;
+import com.example.ExpenseTracker.Entity.DailyRollup;
+import com.example.ExpenseTracker.Entity.RollupType;
+import com.example.ExpenseTracker.Repository.DailyRollupRepository;
+import com.example.ExpenseTracker.Repository.ExpenseRepository;
+import com.example.ExpenseTracker.Repository.IncomeRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RollupServiceImpl implements RollupService {
+
+    private final DailyRollupRepository dailyRollupRepository;
+    private final ExpenseRepository expenseRepository;
+    private final IncomeRepository incomeRepository;
+
+    // Must join the caller's transaction so the rollup commits or rolls back with the raw row
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAddition(Long ownerId, RollupType type, LocalDate date, String category, Integer amount) {
+        if (date == null) {
+            return;
+        }
+        dailyRollupRepository.addToBucket(ownerId, type.name(), date, categoryKey(category), amountOf(amount));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordRemoval(Long ownerId, RollupType type, LocalDate date, String category, Integer amount) {
+        if (date == null) {
+            return;
+        }
+        String key = categoryKey(category);
+        int value = amountOf(amount);
+
+        DailyRollup bucket = dailyRollupRepository.findByOwnerIdAndTypeAndRollupDateAndCategory(ownerId, type, date, key)
+                .orElse(null);
+        if (bucket == null) {
+            log.warn("Missing {} rollup bucket for owner {} on {} / '{}', run a rollup rebuild", type, ownerId, date, key);
+            return;
+        }
+
+        if (bucket.getTxnCount() <= 1) {
+            dailyRollupRepository.delete(bucket);
+            return;
+        }
+
+        bucket.setTxnCount(bucket.getTxnCount() - 1);
+        bucket.setTotalAmount(bucket.getTotalAmount() - value);
+
+        // Min/max can't be decremented, so re-read them from the raw rows of this one bucket
+        if (value <= bucket.getMinAmount() || value >= bucket.getMaxAmount()) {
+            AmountRangeDTO range = type == RollupType.EXPENSE
+                    ? expenseRepository.findAmountRange(ownerId, date, key)
+                    : incomeRepository.findAmountRange(ownerId, date, key);
+            if (range != null && range.getMinAmount() != null) {
+                bucket.setMinAmount(range.getMinAmount());
+                bucket.setMaxAmount(range.getMaxAmount());
+            }
+        }
+        dailyRollupRepository.save(bucket);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordChange(Long ownerId, RollupType type, RollupKeyDTO before, RollupKeyDTO after) {
+        if (before.equals(after)) {
+            return;
+        }
+        recordRemoval(ownerId, type, before.getDate(), before.getCategory(), before.getAmount());
+        recordAddition(ownerId, type, after.getDate(), after.getCategory(), after.getAmount());
+    }
+
+    @Override
+    @Transactional
+    public void rebuild() {
+        log.info("Rebuilding daily rollups from raw expense and income rows");
+        dailyRollupRepository.deleteAllInBatch();
+        int expenseBuckets = dailyRollupRepository.rebuildExpenseRollups();
+        int incomeBuckets = dailyRollupRepository.rebuildIncomeRollups();
+        log.info("Rollup rebuild complete: {} expense buckets, {} income buckets", expenseBuckets, incomeBuckets);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public boolean needsBackfill() {
+        return dailyRollupRepository.count() == 0
+                && (expenseRepository.count() > 0 || incomeRepository.count() > 0);
+    }
+
+    private static String categoryKey(String category) {
+        return category != null ? category : "";
+    }
+
+    private static int amountOf(Integer amount) {
+        return amount != null ? amount : 0;
+    }
+}
@@ -1,12 +1,24 @@
 package com.example.ExpenseTracker.Service.Stats;
 
+import com.example.ExpenseTracker.DTO.BreakdownDTO;
+import com.example.ExpenseTracker.DTO.BreakdownGrouping;
+import com.example.ExpenseTracker.DTO.BucketedChartDTO;
+import com.example.ExpenseTracker.DTO.ChartResolution;
 import com.example.ExpenseTracker.DTO.GraphDTO;
 import com.example.ExpenseTracker.DTO.StatsDTO;
+import com.example.ExpenseTracker.Entity.RollupType;
+
+import java.time.LocalDate;
 
 public interface StatsService {
-    GraphDTO getChartData();
+    GraphDTO getChartData(Long ownerId);
+
+    GraphDTO getChartDataByDays(Long ownerId, int days);
+
+    BucketedChartDTO getBucketedChart(Long ownerId, int days, ChartResolution resolution);
 
-    GraphDTO getChartDataByDays(int days);
+    StatsDTO getStats(Long ownerId);
 
-    StatsDTO getStats();
+    BreakdownDTO getBreakdown(Long ownerId, RollupType type, BreakdownGrouping groupBy,
+                              LocalDate startDate, LocalDate endDate);
 }
@@ -1,91 +1,168 @@
 package com.example.ExpenseTracker.Service.Stats;
 
+import com.example.ExpenseTracker.DTO.BreakdownDTO;
+import com.example.ExpenseTracker.DTO.BreakdownGrouping;
+import com.example.ExpenseTracker.DTO.BreakdownRowDTO;
+import com.example.ExpenseTracker.DTO.BucketedChartDTO;
+import com.example.ExpenseTracker.DTO.ChartBucketDTO;
+import com.example.ExpenseTracker.DTO.ChartResolution;
 import com.example.ExpenseTracker.DTO.GraphDTO;
+import com.example.ExpenseTracker.DTO.RollupTotalsDTO;
 import com.example.ExpenseTracker.DTO.StatsDTO;
 import com.example.ExpenseTracker.Entity.Expense;
 import com.example.ExpenseTracker.Entity.Income;
+import com.example.ExpenseTracker.Entity.RollupType;
+import com.example.ExpenseTracker.Repository.DailyRollupRepository;
 import com.example.ExpenseTracker.Repository.ExpenseRepository;
 import com.example.ExpenseTracker.Repository.IncomeRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.OptionalDouble;
 
 @Service
 @RequiredArgsConstructor
 public class StatsServiceImpl implements StatsService{
 
+    // Per-transaction chart payloads grow with the number of transactions, so keep the window short
+    private static final int MAX_RAW_CHART_DAYS = 366;
+    private static final int MAX_BUCKETED_CHART_DAYS = 3660;
+
     private final IncomeRepository incomeRepository;
     private final ExpenseRepository expenseRepository;
+    private final DailyRollupRepository dailyRollupRepository;
 
+    // Annotated here too: the call below is a self-invocation and would bypass the proxy's transaction
     @Override
-    public GraphDTO getChartData() {
+    @Transactional(readOnly = true)
+    public GraphDTO getChartData(Long ownerId) {
         // Default to 180 days to capture more data
-        return getChartDataByDays(180);
+        return getChartDataByDays(ownerId, 180);
     }
 
+    // Read-only: Hibernate skips flushes and the four queries share one connection
     @Override
-    public GraphDTO getChartDataByDays(int days) {
+    @Transactional(readOnly = true)
+    public GraphDTO getChartDataByDays(Long ownerId, int days) {
+        if (days < 1 || days > MAX_RAW_CHART_DAYS) {
+            throw new IllegalArgumentException("Days must be between 1 and " + MAX_RAW_CHART_DAYS);
+        }
         LocalDate endDate = LocalDate.now();
         LocalDate startDate = endDate.minusDays(days);
 
         GraphDTO graphDTO = new GraphDTO();
-        graphDTO.setExpenseList(expenseRepository.findByDateBetween(startDate, endDate));
-        graphDTO.setIncomeList(incomeRepository.findByDateBetween(startDate, endDate));
+        graphDTO.setExpenseList(expenseRepository.findChartPoints(ownerId, startDate, endDate));
+        graphDTO.setIncomeList(incomeRepository.findChartPoints(ownerId, startDate, endDate));
+
+        // Per-day totals come from the rollup table: one row per day, not per transaction
+        graphDTO.setExpenseDaily(dailyRollupRepository.findDailyTotals(ownerId, RollupType.EXPENSE, startDate, endDate));
+        graphDTO.setIncomeDaily(dailyRollupRepository.findDailyTotals(ownerId, RollupType.INCOME, startDate, endDate));
 
         return graphDTO;
     }
 
     @Override
-    public StatsDTO getStats() {
-        Double totalIncome = incomeRepository.sumAllAmounts();
-        Double totalExpense = expenseRepository.sumAllAmounts();
+    @Transactional(readOnly = true)
+    public BucketedChartDTO getBucketedChart(Long ownerId, int days, ChartResolution resolution) {
+        if (days < 1 || days > MAX_BUCKETED_CHART_DAYS) {
+            throw new IllegalArgumentException("Days must be between 1 and " + MAX_BUCKETED_CHART_DAYS);
+        }
+        ChartResolution effective = resolution != null ? resolution : ChartResolution.forWindow(days);
+
+        LocalDate endDate = LocalDate.now();
+        LocalDate startDate = endDate.minusDays(days);
+
+        // Dense series: every bucket in the window is present, empty ones as zeros
+        Map<LocalDate, ChartBucketDTO> buckets = new LinkedHashMap<>();
+        for (LocalDate bucket = effective.bucketStart(startDate); !bucket.isAfter(endDate); bucket = effective.nextBucket(bucket)) {
+            buckets.put(bucket, new ChartBucketDTO(bucket, 0, 0, 0));
+        }
+
+        // The database groups by day, both types at once; folding at most `days` rows into coarser buckets is trivial here
+        for (ChartBucketDTO day : dailyRollupRepository.findDailyBuckets(ownerId, startDate, endDate)) {
+            ChartBucketDTO bucket = buckets.get(effective.bucketStart(day.getBucketStart()));
+            bucket.setExpenseTotal(bucket.getExpenseTotal() + day.getExpenseTotal());
+            bucket.setIncomeTotal(bucket.getIncomeTotal() + day.getIncomeTotal());
+            bucket.setCount(bucket.getCount() + day.getCount());
+        }
+
+        return new BucketedChartDTO(effective, startDate, endDate, new ArrayList<>(buckets.values()));
+    }
 
-        Optional<Income> optionalIncome = incomeRepository.findFirstByOrderByDateDesc();
-        Optional<Expense> optionalExpense = expenseRepository.findFirstByOrderByDateDesc();
+    // One read-only transaction: the three queries share a connection and, under InnoDB's default
+    // REPEATABLE READ, one snapshot, so the totals and the latest entries always agree with each other
+    @Override
+    @Transactional(readOnly = true)
+    public StatsDTO getStats(Long ownerId) {
+        // Totals, min and max are read from the daily rollups instead of scanning the raw tables
+        RollupTotalsDTO incomeTotals = null;
+        RollupTotalsDTO expenseTotals = null;
+        for (RollupTotalsDTO totals : dailyRollupRepository.getTotalsByType(ownerId)) {
+            switch (totals.getType()) {
+                case INCOME -> incomeTotals = totals;
+                case EXPENSE -> expenseTotals = totals;
+            }
+        }
+
+        Optional<Income> optionalIncome = incomeRepository.findFirstByOwnerIdOrderByDateDesc(ownerId);
+        Optional<Expense> optionalExpense = expenseRepository.findFirstByOwnerIdOrderByDateDesc(ownerId);
+
+        double income = totalOf(incomeTotals);
+        double expense = totalOf(expenseTotals);
 
         StatsDTO statsDTO = new StatsDTO();
-        statsDTO.setExpense(totalExpense != null ? totalExpense : 0.0);
-        statsDTO.setIncome(totalIncome != null ? totalIncome : 0.0);
+        statsDTO.setExpense(expense);
+        statsDTO.setIncome(income);
 
         optionalIncome.ifPresent(statsDTO::setLatestIncome);
         optionalExpense.ifPresent(statsDTO::setLatestExpense);
 
-        // Fixed: Handle null values properly for balance calculation
-        double income = totalIncome != null ? totalIncome : 0.0;
-        double expense = totalExpense != null ? totalExpense : 0.0;
         statsDTO.setBalance(income - expense);
 
-        List<Income> incomeList = incomeRepository.findAll();
-        List<Expense> expenseList = expenseRepository.findAll();  // Fixed: Changed from 'expenses' to 'expenseList'
+        statsDTO.setMaxExpense(toDouble(expenseTotals != null ? expenseTotals.getMaxAmount() : null));
+        statsDTO.setMinExpense(toDouble(expenseTotals != null ? expenseTotals.getMinAmount() : null));
 
-        // Fixed: Integer to double conversion for amount field
-        OptionalDouble minIncome = incomeList.stream()
-                .mapToDouble(Income::getAmount)
-                .min();
+        statsDTO.setMaxIncome(toDouble(incomeTotals != null ? incomeTotals.getMaxAmount() : null));
+        statsDTO.setMinIncome(toDouble(incomeTotals != null ? incomeTotals.getMinAmount() : null));
 
-        OptionalDouble maxIncome = incomeList.stream()
-                .mapToDouble(Income::getAmount)
-                .max();
-
-        OptionalDouble minExpense = expenseList.stream()
-                .mapToDouble(Expense::getAmount)
-                .min();
-
-        OptionalDouble maxExpense = expenseList.stream()
-                .mapToDouble(Expense::getAmount)
-                .max();
+        return statsDTO;
+    }
 
-        statsDTO.setMaxExpense(maxExpense.isPresent() ? maxExpense.getAsDouble() : null);
-        statsDTO.setMinExpense(minExpense.isPresent() ? minExpense.getAsDouble() : null);
+    @Override
+    @Transactional(readOnly = true)
+    public BreakdownDTO getBreakdown(Long ownerId, RollupType type, BreakdownGrouping groupBy,
+                                     LocalDate startDate, LocalDate endDate) {
+        if (startDate.isAfter(endDate)) {
+            throw new IllegalArgumentException("Start date must not be after end date");
+        }
+        if (ChronoUnit.DAYS.between(startDate, endDate) > MAX_BUCKETED_CHART_DAYS) {
+            throw new IllegalArgumentException("Date range must be at most " + MAX_BUCKETED_CHART_DAYS + " days");
+        }
+        RollupType effectiveType = type != null ? type : RollupType.EXPENSE;
+        BreakdownGrouping effectiveGrouping = groupBy != null ? groupBy : BreakdownGrouping.CATEGORY;
+
+        List<BreakdownRowDTO> rows = switch (effectiveGrouping) {
+            case CATEGORY -> dailyRollupRepository.findCategoryBreakdown(ownerId, effectiveType, startDate, endDate);
+            case MONTH -> dailyRollupRepository.findMonthlyBreakdown(ownerId, effectiveType, startDate, endDate);
+            case CATEGORY_MONTH ->
+                    dailyRollupRepository.findCategoryMonthBreakdown(ownerId, effectiveType, startDate, endDate);
+        };
+        return new BreakdownDTO(effectiveType, effectiveGrouping, startDate, endDate, rows);
+    }
 
-        statsDTO.setMaxIncome(maxIncome.isPresent() ? maxIncome.getAsDouble() : null);
-        statsDTO.setMinIncome(minIncome.isPresent() ? minIncome.getAsDouble() : null);
+    private static double totalOf(RollupTotalsDTO totals) {
+        return totals != null && totals.getTotal() != null ? totals.getTotal() : 0.0;
+    }
 
-        return statsDTO;
+    private static Double toDouble(Integer value) {
+        return value != null ? value.doubleValue() : null;
     }
 
 }
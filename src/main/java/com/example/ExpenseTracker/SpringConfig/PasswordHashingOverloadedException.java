@@ -0,0 +1,11 @@
+package com.example.ExpenseTracker.SpringConfig;
+
+/**
+ * Thrown when the password-hashing pool and its queue are full; callers answer 503 with Retry-After.
+ */
+public class PasswordHashingOverloadedException extends RuntimeException {
+
+    public PasswordHashingOverloadedException() {
+        super("Server is busy, please retry shortly");
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.ExpenseTracker.SpringConfig;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Read-only target behind the routing proxy: hands out connections to a replica whose measured lag is within
+ * {@code maxLag}, or to the primary when none qualifies. Lag is probed in the background, never on the request path.
+ * Readers are spread over the healthy replicas by thread. Each transaction holds a single connection, so reads that
+ * must agree (an ETag version and its body) belong in one read-only transaction rather than relying on routing.
+ */
+@Slf4j
+public class ReplicaDataSource extends AbstractDataSource implements Closeable {
+
+    private record Replica(String name, DataSource dataSource, AtomicLong lagSeconds) {
+    }
+
+    @FunctionalInterface
+    private interface ConnectionOpener {
+        Connection open(DataSource dataSource) throws SQLException;
+    }
+
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final long maxLagSeconds;
+    private final String lagQuery;
+    private final String lagColumn;
+    private final Counter fallbacks;
+
+    // Replaced wholesale by checkLag(); readers never lock
+    private volatile List<Replica> healthy = List.of();
+
+    public ReplicaDataSource(DataSource primary, Map<String, DataSource> replicas, Duration maxLag,
+                             String lagQuery, String lagColumn, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.maxLagSeconds = maxLag.toSeconds();
+        this.lagQuery = lagQuery;
+        this.lagColumn = lagColumn;
+        replicas.forEach((name, dataSource) -> {
+            Replica replica = new Replica(name, dataSource, new AtomicLong(-1));
+            this.replicas.add(replica);
+            // -1 until the first probe succeeds, or while replication is stopped or unreachable
+            Gauge.builder("datasource.replica.lag", replica.lagSeconds(), AtomicLong::get)
+                    .tag("replica", name)
+                    .baseUnit("seconds")
+                    .register(meterRegistry);
+        });
+        this.fallbacks = Counter.builder("datasource.routing.fallback")
+                .description("Read-only connections served by the primary because no replica was within the lag limit")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return connect(DataSource::getConnection);
+    }
+
+    // Explicit credentials go to the same target a plain request would; a replica that refuses them falls back
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return connect(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    private Connection connect(ConnectionOpener opener) throws SQLException {
+        List<Replica> candidates = healthy;
+        if (!candidates.isEmpty()) {
+            Replica replica = candidates.get((int) Math.floorMod(Thread.currentThread().threadId(), candidates.size()));
+            try {
+                return opener.open(replica.dataSource());
+            } catch (SQLException e) {
+                log.warn("ReplicaDataSource: {} unavailable, reading from primary: {}", replica.name(), e.getMessage());
+            }
+        }
+        fallbacks.increment();
+        return opener.open(primary);
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.routing.lag-check-interval-ms:5000}")
+    public void checkLag() {
+        List<Replica> withinLimit = new ArrayList<>();
+        for (Replica replica : replicas) {
+            long lag = probeLag(replica);
+            replica.lagSeconds().set(lag);
+            if (lag >= 0 && lag <= maxLagSeconds) {
+                withinLimit.add(replica);
+            } else if (healthy.contains(replica)) {
+                log.warn("ReplicaDataSource: {} lag {}s exceeds {}s, routing its reads to the primary",
+                        replica.name(), lag, maxLagSeconds);
+            }
+        }
+        healthy = List.copyOf(withinLimit);
+    }
+
+    private long probeLag(Replica replica) {
+        try (Connection connection = replica.dataSource().getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(lagQuery)) {
+            if (!rs.next()) {
+                return -1;
+            }
+            long lag = rs.getLong(lagColumn);
+            return rs.wasNull() ? -1 : lag;
+        } catch (SQLException e) {
+            log.debug("ReplicaDataSource: lag probe on {} failed: {}", replica.name(), e.getMessage());
+            return -1;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (Replica replica : replicas) {
+            if (replica.dataSource() instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.ExpenseTracker.SpringConfig;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Sends read-only transactions to replicas. Enabled with datasource.routing.enabled=true; otherwise
+ * Boot's single auto-configured DataSource is used unchanged.
+ *
+ * The lazy proxy defers fetching a physical connection until the first statement, by which time the
+ * transaction manager has marked it read-only, so the choice between primary and replica is made per transaction.
+ * That only holds while each transaction gets its own EntityManager: open-in-view would keep the first connection,
+ * replica or not, for every later transaction of the request, so it must be off.
+ */
+@Configuration
+@EnableConfigurationProperties(ReplicaRoutingProperties.class)
+@ConditionalOnProperty(name = "datasource.routing.enabled", havingValue = "true")
+public class ReplicaRoutingConfig {
+
+    // Same spring.datasource.* and spring.datasource.hikari.* settings as the auto-configured pool
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean(destroyMethod = "close")
+    public ReplicaDataSource replicaDataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                               ReplicaRoutingProperties properties,
+                                               MeterRegistry meterRegistry) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < properties.getReplicas().size(); i++) {
+            ReplicaRoutingProperties.Replica replica = properties.getReplicas().get(i);
+            HikariDataSource pool = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(replica.getUrl())
+                    .username(replica.getUsername())
+                    .password(replica.getPassword())
+                    .build();
+            pool.setPoolName("replica-" + (i + 1));
+            pool.setReadOnly(true);
+            replicas.put(pool.getPoolName(), pool);
+        }
+        return new ReplicaDataSource(primary, replicas, properties.getMaxLag(),
+                properties.getLagQuery(), properties.getLagColumn(), meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary, ReplicaDataSource replicaDataSource,
+                                 @Value("${spring.jpa.open-in-view:true}") boolean openInView) {
+        if (openInView) {
+            throw new IllegalStateException("datasource.routing.enabled=true requires spring.jpa.open-in-view=false");
+        }
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(primary);
+        proxy.setReadOnlyDataSource(replicaDataSource);
+        return proxy;
+    }
+}
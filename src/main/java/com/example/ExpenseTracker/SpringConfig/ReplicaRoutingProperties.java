@@ -0,0 +1,36 @@
+package com.example.ExpenseTracker.SpringConfig;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read replicas for {@code @Transactional(readOnly = true)} work, bound from {@code datasource.routing.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "datasource.routing")
+public class ReplicaRoutingProperties {
+
+    private boolean enabled;
+
+    /** Replicas further behind than this are skipped until they catch up. */
+    private Duration maxLag = Duration.ofSeconds(5);
+
+    /** Query run on each replica to measure lag; the default reads MySQL's replication status. */
+    private String lagQuery = "SHOW REPLICA STATUS";
+
+    /** Column of {@link #lagQuery} holding the lag in seconds; NULL means replication is not running. */
+    private String lagColumn = "Seconds_Behind_Source";
+
+    private List<Replica> replicas = new ArrayList<>();
+
+    @Data
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+    }
+}
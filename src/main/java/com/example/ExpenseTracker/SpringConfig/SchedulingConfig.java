@@ -0,0 +1,24 @@
+package com.example.ExpenseTracker.SpringConfig;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+
+    /**
+     * Background jobs always run on platform threads, even with spring.threads.virtual.enabled=true.
+     * The outbox dispatcher spends its time inside Jakarta Mail's synchronized SMTP transport,
+     * which would pin a virtual thread's carrier for the whole network round trip.
+     */
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(2);
+        scheduler.setThreadNamePrefix("scheduler-");
+        return scheduler;
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.ExpenseTracker.Util;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Builds strong ETags from a user's data version. Qualifiers distinguish representations
+ * that also depend on something other than the data, e.g. the current date for charts
+ * whose window ends today.
+ *
+ * Callers read the version before loading the data, inside DataVersionService.inSnapshot when both reads may go to
+ * a replica, so a body is never older than its tag. Lookups by id read the version on their own but load the body
+ * from the primary, which is never behind the version.
+ */
+public final class ETagUtil {
+
+    private static final MediaType SMILE = new MediaType("application", "x-jackson-smile");
+
+    // What the Jackson converters produce, in the order Boot registers them (JSON ahead of the
+    // BinaryEncodingConfig converters). ETagUtilTest checks encoding() against Spring's own negotiation.
+    private static final List<MediaType> PRODUCIBLE = List.of(
+            MediaType.APPLICATION_JSON, new MediaType("application", "*+json"), SMILE, MediaType.APPLICATION_CBOR);
+
+    private ETagUtil() {
+    }
+
+    /**
+     * Names the encoding a request's Accept header selects, so JSON, CBOR and Smile bodies of the
+     * same data never share a strong tag. Mirrors the converters' negotiation, q-values included:
+     * {@code application/json, application/cbor;q=0.1} is JSON. Anything else falls back to JSON.
+     */
+    public static String encoding(String accept) {
+        List<MediaType> acceptable;
+        try {
+            acceptable = accept == null || accept.isBlank()
+                    ? List.of(MediaType.ALL) : new ArrayList<>(MediaType.parseMediaTypes(accept));
+        } catch (InvalidMediaTypeException e) {
+            return "json";
+        }
+        MimeTypeUtils.sortBySpecificity(acceptable);
+
+        List<MediaType> candidates = new ArrayList<>();
+        for (MediaType requested : acceptable) {
+            for (MediaType producible : PRODUCIBLE) {
+                if (requested.isCompatibleWith(producible)) {
+                    MediaType produced = producible.copyQualityValue(requested);
+                    candidates.add(requested.isLessSpecific(produced) ? produced : requested);
+                }
+            }
+        }
+        MimeTypeUtils.sortBySpecificity(candidates);
+
+        for (MediaType candidate : candidates) {
+            if (candidate.isConcrete()) {
+                if (MediaType.APPLICATION_CBOR.isCompatibleWith(candidate)) {
+                    return "cbor";
+                }
+                return SMILE.isCompatibleWith(candidate) ? "smile" : "json";
+            }
+        }
+        return "json";
+    }
+
+    /**
+     * Answers a conditional GET from the data version: returns null once a 304 has been written,
+     * without loading the body, and otherwise a 200 carrying the tag and the revalidation headers.
+     * The tag covers the version, the negotiated encoding and any extra qualifiers.
+     */
+    public static <T> ResponseEntity<T> conditional(WebRequest request, long version, Supplier<T> body,
+                                                    Object... qualifiers) {
+        Object[] parts = new Object[qualifiers.length + 1];
+        parts[0] = encoding(request.getHeader(HttpHeaders.ACCEPT));
+        System.arraycopy(qualifiers, 0, parts, 1, qualifiers.length);
+        String etag = of(version, parts);
+        if (request.checkNotModified(etag)) {
+            // 304 already written; only the version counter was read
+            return null;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .eTag(etag)
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(body.get());
+    }
+
+    public static String of(long version, Object... qualifiers) {
+        StringBuilder tag = new StringBuilder("\"v").append(version);
+        for (Object qualifier : qualifiers) {
+            tag.append('-').append(qualifier);
+        }
+        return tag.append('"').toString();
+    }
+}
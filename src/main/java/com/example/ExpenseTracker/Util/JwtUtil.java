@@ -1,12 +1,18 @@
 package com.example.ExpenseTracker.Util;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.io.DecodingException;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
+import javax.crypto.spec.SecretKeySpec;
+import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
@@ -18,6 +24,32 @@ public class JwtUtil {
     @Value("${jwt.secret.key}")
     private String SECRET_KEY;
 
+    // Built once at startup; both are immutable and thread-safe
+    private Key signingKey;
+    private JwtParser jwtParser;
+
+    // HS256 needs a key of at least 256 bits
+    private static final int MIN_KEY_BYTES = 32;
+
+    @PostConstruct
+    void init() {
+        // Same key material as the old String overloads, which Base64-decoded the secret on every call
+        byte[] keyBytes;
+        try {
+            keyBytes = Decoders.BASE64.decode(SECRET_KEY);
+        } catch (DecodingException e) {
+            throw new IllegalStateException("jwt.secret.key must be Base64-encoded, e.g. the output of `openssl rand -base64 64`", e);
+        }
+        if (keyBytes.length < MIN_KEY_BYTES) {
+            throw new IllegalStateException("jwt.secret.key must decode to at least " + MIN_KEY_BYTES
+                    + " bytes for HS256, got " + keyBytes.length);
+        }
+        signingKey = new SecretKeySpec(keyBytes, SignatureAlgorithm.HS256.getJcaName());
+        jwtParser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+    }
+
     public String generateToken(UserDetails userDetails) {
         Map<String, Object> cliams = new HashMap<>();
         return createToken(cliams, userDetails.getUsername()); // ✅ fixed typo (userDetials → userDetails)
@@ -25,24 +57,28 @@ public class JwtUtil {
 
     private String createToken(Map<String, Object> cliams, String email) {
 
-        // ✅ placeholder return (no JWT logic written yet)
         return Jwts.builder()
                 .setClaims(cliams)
                 .setSubject(email)
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis()+ 1000 * 60 * 60 * 10)) //10 hour Expiration
-                .signWith(SignatureAlgorithm.HS256,SECRET_KEY)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
-    private Claims extractAllClaims(String token){
-        return Jwts.parser()
-                .setSigningKey(SECRET_KEY)
-                .parseClaimsJws(token)
-                .getBody();
+
+    /**
+     * Verifies the signature and expiry of the token and returns its claims.
+     * This is the only place a token is parsed; callers should reuse the returned claims
+     * rather than calling the extract* helpers, which each parse the token again.
+     *
+     * @throws io.jsonwebtoken.JwtException if the token is malformed, tampered with or expired
+     */
+    public Claims verifyToken(String token){
+        return jwtParser.parseClaimsJws(token).getBody();
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver){
-        final Claims claims = extractAllClaims(token);
+        final Claims claims = verifyToken(token);
         return claimsResolver.apply(claims);
     }
     public String extractEmail(String token){
@@ -53,13 +89,15 @@ public class JwtUtil {
         return extractClaim(token,Claims::getExpiration);
     }
 
-    private Boolean isTokenExpired(String token){
-        return extractExpiration(token).before(new Date());
+    public Boolean isTokenValid(Claims claims, UserDetails userDetails){
+        final String email = claims.getSubject();
+        final Date expiration = claims.getExpiration();
+        return email != null && email.equals(userDetails.getUsername())
+                && expiration != null && expiration.after(new Date());
     }
 
     public Boolean validateToken(String token,UserDetails userDetails){
-        final String email = extractEmail(token);
-        return (email.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        return isTokenValid(verifyToken(token), userDetails);
     }
 
 }
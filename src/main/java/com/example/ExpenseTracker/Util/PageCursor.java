@@ -0,0 +1,40 @@
+package com.example.ExpenseTracker.Util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque continuation token for keyset pagination ordered by (date DESC, id DESC).
+ * Clients must treat the encoded value as an opaque string and pass it back unchanged.
+ * A null date marks a page that ended among the undated rows, which sort after every dated one.
+ */
+public record PageCursor(LocalDate date, Long id) {
+
+    private static final String SEPARATOR = "|";
+
+    public String encode() {
+        String raw = (date != null ? date.toString() : "") + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static PageCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int split = raw.indexOf(SEPARATOR);
+            if (split < 0) {
+                throw new IllegalArgumentException("Invalid page cursor");
+            }
+            String date = raw.substring(0, split);
+            // "null" is what cursors for undated rows looked like before they were encoded as an empty date
+            return new PageCursor(
+                    date.isEmpty() || date.equals("null") ? null : LocalDate.parse(date),
+                    Long.parseLong(raw.substring(split + 1))
+            );
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid page cursor", e);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+-- Schema as generated by spring.jpa.hibernate.ddl-auto=update before migrations were introduced.
+-- Databases that already have these tables are baselined at this version and skip it, so this file
+-- must describe exactly that schema; every later change goes into a new version.
+
+CREATE TABLE tb1_user (
+    id                   BIGINT       NOT NULL AUTO_INCREMENT,
+    user_id              VARCHAR(255) NOT NULL,
+    name                 VARCHAR(255) NOT NULL,
+    email                VARCHAR(255) NOT NULL,
+    password             VARCHAR(255) NOT NULL,
+    is_account_verified  BIT,
+    verify_otp           VARCHAR(255),
+    verify_otp_expire_at BIGINT,
+    reset_otp            VARCHAR(255),
+    reset_otp_expires_at BIGINT,
+    created_at           DATETIME(6),
+    updated_at           DATETIME(6),
+    PRIMARY KEY (id)
+);
+
+CREATE UNIQUE INDEX uk_tb1_user_user_id ON tb1_user (user_id);
+CREATE UNIQUE INDEX uk_tb1_user_email ON tb1_user (email);
+
+CREATE TABLE expense (
+    id          BIGINT       NOT NULL AUTO_INCREMENT,
+    title       VARCHAR(255),
+    description VARCHAR(255),
+    category    VARCHAR(255),
+    date        DATE,
+    amount      INT,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE income (
+    id          BIGINT       NOT NULL AUTO_INCREMENT,
+    title       VARCHAR(255),
+    amount      INT,
+    date        DATE,
+    category    VARCHAR(255),
+    description VARCHAR(255),
+    PRIMARY KEY (id)
+);
@@ -0,0 +1,13 @@
+-- Expenses and incomes belong to the user who created them.
+-- Rows written before ownership existed cannot be attributed to anyone; they get owner 0 and stay hidden.
+
+ALTER TABLE expense ADD COLUMN owner_id BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE expense ALTER COLUMN owner_id DROP DEFAULT;
+
+ALTER TABLE income ADD COLUMN owner_id BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE income ALTER COLUMN owner_id DROP DEFAULT;
+
+-- Date range / recency / keyset pages, read backwards for ORDER BY date DESC, id DESC
+CREATE INDEX idx_expense_owner_date ON expense (owner_id, date, id);
+
+CREATE INDEX idx_income_owner_date ON income (owner_id, date, id);
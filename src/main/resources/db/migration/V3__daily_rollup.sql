@@ -0,0 +1,17 @@
+-- Per-owner, per-day, per-category totals behind the stats and chart endpoints.
+-- Starts empty on upgraded databases; RollupBackfillRunner fills it from the raw tables on first start.
+
+CREATE TABLE daily_rollup (
+    id           BIGINT       NOT NULL AUTO_INCREMENT,
+    owner_id     BIGINT       NOT NULL,
+    type         VARCHAR(16)  NOT NULL,
+    rollup_date  DATE         NOT NULL,
+    category     VARCHAR(255) NOT NULL,
+    txn_count    BIGINT       NOT NULL,
+    total_amount BIGINT       NOT NULL,
+    min_amount   INT          NOT NULL,
+    max_amount   INT          NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE UNIQUE INDEX uk_rollup_owner_type_date_category ON daily_rollup (owner_id, type, rollup_date, category);
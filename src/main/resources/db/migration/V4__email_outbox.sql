@@ -0,0 +1,17 @@
+-- Transactional outbox for emails, delivered in batches by EmailOutboxDispatcher
+
+CREATE TABLE email_outbox (
+    id              BIGINT        NOT NULL AUTO_INCREMENT,
+    recipient       VARCHAR(255)  NOT NULL,
+    subject         VARCHAR(255)  NOT NULL,
+    body            TEXT          NOT NULL,
+    status          VARCHAR(16)   NOT NULL,
+    attempts        INT           NOT NULL,
+    next_attempt_at BIGINT        NOT NULL,
+    last_error      VARCHAR(1000),
+    created_at      DATETIME(6),
+    sent_at         DATETIME(6),
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_email_outbox_status_next_attempt ON email_outbox (status, next_attempt_at);
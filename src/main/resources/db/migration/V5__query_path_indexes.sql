@@ -0,0 +1,9 @@
+-- Indexes for the hot read paths. All of them lead with owner_id because every query is per user.
+--
+--   date range / recency / keyset pages : idx_<table>_owner_date (owner_id, date, id) from V2,
+--                                         read backwards for ORDER BY date DESC, id DESC
+--   category + date                     : idx_<table>_owner_category_date below
+
+CREATE INDEX idx_expense_owner_category_date ON expense (owner_id, category, date);
+
+CREATE INDEX idx_income_owner_category_date ON income (owner_id, category, date);
@@ -0,0 +1,7 @@
+-- Per-user data version behind the ETags of the read endpoints
+
+CREATE TABLE user_data_version (
+    owner_id BIGINT NOT NULL,
+    version  BIGINT NOT NULL,
+    PRIMARY KEY (owner_id)
+);
@@ -0,0 +1,5 @@
+-- Covering index for the per-owner rollup reads (daily totals and the category/month breakdowns):
+-- the range on rollup_date and the summed columns are all answered from the index.
+
+CREATE INDEX idx_rollup_owner_type_date_totals
+    ON daily_rollup (owner_id, type, rollup_date, category, txn_count, total_amount);
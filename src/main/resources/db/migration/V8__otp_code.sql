@@ -0,0 +1,10 @@
+-- One-time passwords for the optional shared OTP store (otp.store=jdbc); keeps OTP writes off tb1_user
+
+CREATE TABLE otp_code (
+    purpose    VARCHAR(16)  NOT NULL,
+    email      VARCHAR(255) NOT NULL,
+    code       VARCHAR(16)  NOT NULL,
+    expires_at BIGINT       NOT NULL,
+    PRIMARY KEY (purpose, email),
+    KEY idx_otp_code_expires_at (expires_at)
+);
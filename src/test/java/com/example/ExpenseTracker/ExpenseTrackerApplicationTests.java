@@ -3,7 +3,8 @@ package com.example.ExpenseTracker;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+// The committed jwt.secret.key is a placeholder that JwtUtil rejects at startup
+@SpringBootTest(properties = "jwt.secret.key=dGVzdC1vbmx5LWp3dC1zZWNyZXQta2V5LWZvci1jb250ZXh0LWxvYWRzIQ==")
 class ExpenseTrackerApplicationTests {
 
 	@Test
@@ -0,0 +1,45 @@
+package com.example.ExpenseTracker.Filter;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong(TimeUnit.SECONDS.toNanos(1000));
+
+    private final TokenBucketLimiter limiter =
+            new TokenBucketLimiter(3, Duration.ofSeconds(30), 100, Duration.ofMinutes(1), clock::get);
+
+    @Test
+    void allowsBurstThenRejectsWithWaitUntilNextToken() {
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire("a@example.com"));
+        }
+
+        long wait = limiter.tryAcquire("a@example.com");
+        assertEquals(TimeUnit.SECONDS.toNanos(10), wait);
+
+        clock.addAndGet(wait);
+        assertEquals(0, limiter.tryAcquire("a@example.com"));
+        assertTrue(limiter.tryAcquire("a@example.com") > 0);
+    }
+
+    @Test
+    void keysAreIndependentAndRefillToCapacity() {
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire("a@example.com");
+        }
+        assertEquals(0, limiter.tryAcquire("b@example.com"));
+
+        clock.addAndGet(TimeUnit.MINUTES.toNanos(5));
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire("a@example.com"));
+        }
+        assertTrue(limiter.tryAcquire("a@example.com") > 0);
+    }
+}
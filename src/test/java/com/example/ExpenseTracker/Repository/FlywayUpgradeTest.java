@@ -0,0 +1,67 @@
+package com.example.ExpenseTracker.Repository;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.output.MigrateResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Upgrades a database shaped like the schema ddl-auto=update produced before migrations existed,
+ * with the same baseline settings as application.properties.
+ */
+class FlywayUpgradeTest {
+
+    private DataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void createLegacySchema() {
+        dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:flyway_upgrade;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE tb1_user (id BIGINT NOT NULL AUTO_INCREMENT, user_id VARCHAR(255) NOT NULL, "
+                + "name VARCHAR(255) NOT NULL, email VARCHAR(255) NOT NULL, password VARCHAR(255) NOT NULL, "
+                + "is_account_verified BIT, verify_otp VARCHAR(255), verify_otp_expire_at BIGINT, "
+                + "reset_otp VARCHAR(255), reset_otp_expires_at BIGINT, created_at DATETIME(6), updated_at DATETIME(6), "
+                + "PRIMARY KEY (id), CONSTRAINT UK_user_id UNIQUE (user_id), CONSTRAINT UK_email UNIQUE (email))");
+        jdbcTemplate.execute("CREATE TABLE expense (id BIGINT NOT NULL AUTO_INCREMENT, amount INT, category VARCHAR(255), "
+                + "date DATE, description VARCHAR(255), title VARCHAR(255), PRIMARY KEY (id))");
+        jdbcTemplate.execute("CREATE TABLE income (id BIGINT NOT NULL AUTO_INCREMENT, amount INT, category VARCHAR(255), "
+                + "date DATE, description VARCHAR(255), title VARCHAR(255), PRIMARY KEY (id))");
+        jdbcTemplate.update("INSERT INTO expense (title, category, date, amount) VALUES ('Lunch', 'Food', DATE '2024-05-01', 250)");
+        jdbcTemplate.update("INSERT INTO income (title, category, date, amount) VALUES ('Salary', 'Salary', DATE '2024-05-01', 5000)");
+    }
+
+    @AfterEach
+    void dropAll() {
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void legacyDatabaseIsBaselinedAndUpgradedToLatest() {
+        Flyway flyway = Flyway.configure()
+                .dataSource(dataSource)
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .load();
+
+        MigrateResult result = flyway.migrate();
+
+        assertTrue(result.success);
+        assertEquals(0, flyway.info().pending().length);
+        assertTrue(result.migrations.stream().noneMatch(m -> "1".equals(m.version)), "V1 must be baselined, not run");
+        assertEquals(0L, jdbcTemplate.queryForObject("SELECT owner_id FROM expense", Long.class));
+        assertEquals(0L, jdbcTemplate.queryForObject("SELECT owner_id FROM income", Long.class));
+        for (String table : new String[]{"daily_rollup", "email_outbox", "user_data_version", "otp_code"}) {
+            assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Integer.class), table);
+        }
+    }
+}
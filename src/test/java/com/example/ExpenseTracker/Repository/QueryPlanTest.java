@@ -0,0 +1,141 @@
+package com.example.ExpenseTracker.Repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs EXPLAIN for the hot repository queries against the Flyway schema on H2 in MySQL mode,
+ * and fails when a query would fall back to a table scan or stop using its index.
+ * The SQL mirrors what Hibernate generates for the corresponding repository methods.
+ */
+@JdbcTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:query_plans;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password="
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class QueryPlanTest {
+
+    private static final String[] CATEGORIES = {"Food", "Rent", "Travel", "Bills", "Salary"};
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // ANALYZE commits in H2, so the test transaction's rollback never undoes the seed; clear it
+    // explicitly so every plan is checked against the same data volume
+    @BeforeEach
+    void seed() {
+        LocalDate today = LocalDate.now();
+        for (String table : List.of("expense", "income")) {
+            jdbcTemplate.execute("DELETE FROM " + table);
+            List<Object[]> rows = new ArrayList<>();
+            for (long owner = 1; owner <= 5; owner++) {
+                for (int i = 0; i < 400; i++) {
+                    rows.add(new Object[]{"Row " + i, CATEGORIES[i % CATEGORIES.length],
+                            Date.valueOf(today.minusDays(i % 365)), 100 + i, owner});
+                }
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO " + table
+                    + " (title, category, date, amount, owner_id) VALUES (?, ?, ?, ?, ?)", rows);
+        }
+        jdbcTemplate.execute("DELETE FROM daily_rollup");
+        jdbcTemplate.update("INSERT INTO daily_rollup (owner_id, type, rollup_date, category, txn_count, total_amount, "
+                + "min_amount, max_amount) SELECT owner_id, 'EXPENSE', date, COALESCE(category, ''), COUNT(*), "
+                + "SUM(amount), MIN(amount), MAX(amount) FROM expense GROUP BY owner_id, date, COALESCE(category, '')");
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @Test
+    void dateRangeUsesOwnerDateIndex() {
+        // findChartPoints
+        assertUsesIndex("idx_expense_owner_date",
+                "SELECT date, amount, category FROM expense WHERE owner_id = 1 "
+                        + "AND date BETWEEN DATE '2025-01-01' AND DATE '2025-06-30' ORDER BY date");
+        assertUsesIndex("idx_income_owner_date",
+                "SELECT date, amount, category FROM income WHERE owner_id = 1 "
+                        + "AND date BETWEEN DATE '2025-01-01' AND DATE '2025-06-30' ORDER BY date");
+    }
+
+    @Test
+    void latestEntryUsesOwnerDateIndex() {
+        // findFirstByOwnerIdOrderByDateDesc
+        assertUsesIndex("idx_expense_owner_date",
+                "SELECT * FROM expense WHERE owner_id = 1 ORDER BY date DESC LIMIT 1");
+        assertUsesIndex("idx_income_owner_date",
+                "SELECT * FROM income WHERE owner_id = 1 ORDER BY date DESC LIMIT 1");
+    }
+
+    @Test
+    void keysetPageUsesOwnerDateIndex() {
+        // findPageAfter
+        assertUsesIndex("idx_expense_owner_date",
+                "SELECT * FROM expense WHERE owner_id = 1 "
+                        + "AND (date < DATE '2025-03-01' OR (date = DATE '2025-03-01' AND id < 500) OR date IS NULL) "
+                        + "ORDER BY date DESC, id DESC LIMIT 21");
+        // findUndatedPageAfter
+        assertUsesIndex("idx_expense_owner_date",
+                "SELECT * FROM expense WHERE owner_id = 1 AND date IS NULL AND id < 500 ORDER BY id DESC LIMIT 21");
+    }
+
+    @Test
+    void categoryAndDateUsesOwnerCategoryDateIndex() {
+        assertUsesIndex("idx_expense_owner_category_date",
+                "SELECT date, amount FROM expense WHERE owner_id = 1 AND category = 'Food' "
+                        + "AND date BETWEEN DATE '2025-01-01' AND DATE '2025-06-30'");
+        assertUsesIndex("idx_income_owner_category_date",
+                "SELECT date, amount FROM income WHERE owner_id = 1 AND category = 'Salary' "
+                        + "AND date BETWEEN DATE '2025-01-01' AND DATE '2025-06-30'");
+    }
+
+    @Test
+    void rollupRangeUsesCoveringIndex() {
+        // DailyRollupRepository.findDailyTotals
+        assertUsesIndex("idx_rollup_owner_type_date_totals",
+                "SELECT rollup_date, SUM(txn_count), SUM(total_amount) FROM daily_rollup "
+                        + "WHERE owner_id = 1 AND type = 'EXPENSE' "
+                        + "AND rollup_date BETWEEN DATE '2025-01-01' AND DATE '2025-06-30' GROUP BY rollup_date");
+    }
+
+    @Test
+    void breakdownUsesCoveringIndex() {
+        // DailyRollupRepository.findCategoryBreakdown / findMonthlyBreakdown
+        assertUsesIndex("idx_rollup_owner_type_date_totals",
+                "SELECT category, SUM(txn_count), SUM(total_amount) FROM daily_rollup "
+                        + "WHERE owner_id = 1 AND type = 'EXPENSE' "
+                        + "AND rollup_date BETWEEN DATE '2025-01-01' AND DATE '2025-12-31' GROUP BY category");
+        assertUsesIndex("idx_rollup_owner_type_date_totals",
+                "SELECT EXTRACT(YEAR FROM rollup_date), EXTRACT(MONTH FROM rollup_date), SUM(txn_count), "
+                        + "SUM(total_amount) FROM daily_rollup WHERE owner_id = 1 AND type = 'EXPENSE' "
+                        + "AND rollup_date BETWEEN DATE '2025-01-01' AND DATE '2025-12-31' "
+                        + "GROUP BY EXTRACT(YEAR FROM rollup_date), EXTRACT(MONTH FROM rollup_date)");
+    }
+
+    @Test
+    void outboxPollUsesStatusIndex() {
+        // EmailOutboxRepository.findDue; the FOR UPDATE SKIP LOCKED suffix does not change the access path
+        assertUsesIndex("idx_email_outbox_status_next_attempt",
+                "SELECT * FROM email_outbox WHERE status IN ('PENDING', 'IN_FLIGHT') AND next_attempt_at <= 1000 "
+                        + "ORDER BY id LIMIT 50");
+    }
+
+    private void assertUsesIndex(String index, String sql) {
+        String plan = String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class))
+                .toLowerCase(Locale.ROOT);
+        assertTrue(plan.contains(index), () -> "Expected " + index + " in plan:\n" + plan);
+        assertFalse(plan.contains("tablescan"), () -> "Unexpected table scan in plan:\n" + plan);
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.ExpenseTracker.Service;
+
+import com.example.ExpenseTracker.Entity.EmailOutbox;
+import com.example.ExpenseTracker.Entity.EmailStatus;
+import com.example.ExpenseTracker.Repository.EmailOutboxRepository;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class EmailOutboxDispatcherTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @BeforeEach
+    void setUp() {
+        emailOutboxRepository = mock(EmailOutboxRepository.class);
+    }
+
+    @Test
+    void sendsDueBatchAndMarksRowsSent() throws Exception {
+        List<EmailOutbox> due = List.of(pending(1L, "first@example.com"), pending(2L, "second@example.com"));
+        when(emailOutboxRepository.findDue(anyCollection(), anyLong(), any(Pageable.class))).thenReturn(due);
+
+        int sent = dispatcher(greenMail.getSmtp().getPort()).dispatchDue();
+
+        assertEquals(2, sent);
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertEquals(2, received.length);
+        assertEquals("Account verification OTP", received[0].getSubject());
+        for (EmailOutbox email : due) {
+            assertEquals(EmailStatus.SENT, email.getStatus());
+            assertNotNull(email.getSentAt());
+            assertEquals("", email.getBody());
+        }
+    }
+
+    @Test
+    void retriesWithBackoffAndDeadLettersAfterMaxAttempts() throws Exception {
+        EmailOutbox email = pending(3L, "unreachable@example.com");
+        when(emailOutboxRepository.findDue(anyCollection(), anyLong(), any(Pageable.class))).thenReturn(List.of(email));
+        EmailOutboxDispatcher dispatcher = dispatcher(unusedPort());
+
+        long before = System.currentTimeMillis();
+        assertEquals(0, dispatcher.dispatchDue());
+        assertEquals(EmailStatus.PENDING, email.getStatus());
+        assertEquals(1, email.getAttempts());
+        assertTrue(email.getNextAttemptAt() >= before + 1000);
+        assertNotNull(email.getLastError());
+
+        dispatcher.dispatchDue();
+        assertEquals(2, email.getAttempts());
+        assertTrue(email.getNextAttemptAt() >= before + 2000);
+
+        dispatcher.dispatchDue();
+        assertEquals(3, email.getAttempts());
+        assertEquals(EmailStatus.DEAD, email.getStatus());
+        assertEquals(0, greenMail.getReceivedMessages().length);
+    }
+
+    private EmailOutboxDispatcher dispatcher(int port) {
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(port);
+        mailSender.getJavaMailProperties().put("mail.smtp.connectiontimeout", "2000");
+        return new EmailOutboxDispatcher(emailOutboxRepository, mock(PlatformTransactionManager.class), mailSender,
+                "noreply@example.com", 50, 3, 1000, 60_000, 300_000, Duration.ofDays(1));
+    }
+
+    private static EmailOutbox pending(Long id, String recipient) {
+        return EmailOutbox.builder()
+                .id(id)
+                .recipient(recipient)
+                .subject("Account verification OTP")
+                .body("Your OTP for account verification is: 123456")
+                .status(EmailStatus.PENDING)
+                .attempts(0)
+                .nextAttemptAt(0L)
+                .build();
+    }
+
+    private static int unusedPort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
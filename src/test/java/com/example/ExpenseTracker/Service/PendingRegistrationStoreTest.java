@@ -0,0 +1,73 @@
+package com.example.ExpenseTracker.Service;
+
+import com.example.ExpenseTracker.Entity.PendingRegistration;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PendingRegistrationStoreTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PendingRegistrationStore store = new PendingRegistrationStore(meterRegistry, 2);
+
+    @Test
+    void evictsOldestSignupWhenCapIsReached() {
+        store.putIfAbsent(pending("first@example.com", System.currentTimeMillis()));
+        store.putIfAbsent(pending("second@example.com", System.currentTimeMillis()));
+        store.putIfAbsent(pending("third@example.com", System.currentTimeMillis()));
+
+        assertTrue(store.find("first@example.com").isEmpty());
+        assertTrue(store.find("second@example.com").isPresent());
+        assertTrue(store.find("Third@Example.com").isPresent());
+        assertEquals(1.0, meterRegistry.counter("pending_registration.evicted").count());
+    }
+
+    @Test
+    void sweepRemovesExpiredSignupsOnly() {
+        long twoHoursAgo = System.currentTimeMillis() - 2 * 60 * 60 * 1000;
+        store.putIfAbsent(pending("stale@example.com", twoHoursAgo));
+        store.putIfAbsent(pending("fresh@example.com", System.currentTimeMillis()));
+
+        assertTrue(store.find("stale@example.com").isEmpty());
+        store.sweepExpired();
+
+        assertEquals(1.0, meterRegistry.counter("pending_registration.expired").count());
+        assertTrue(store.find("fresh@example.com").isPresent());
+    }
+
+    @Test
+    void signupCanBeClaimedOnlyOnce() {
+        PendingRegistration registration = pending("once@example.com", System.currentTimeMillis());
+        store.putIfAbsent(registration);
+
+        assertTrue(store.remove(registration));
+        assertFalse(store.remove(registration));
+        assertTrue(store.find("once@example.com").isEmpty());
+    }
+
+    @Test
+    void liveSignupIsNotReplacedButExpiredOneIs() {
+        PendingRegistrationStore store = new PendingRegistrationStore(meterRegistry, 10);
+        long twoHoursAgo = System.currentTimeMillis() - 2 * 60 * 60 * 1000;
+        PendingRegistration original = pending("taken@example.com", System.currentTimeMillis());
+        assertTrue(store.putIfAbsent(original));
+
+        assertFalse(store.putIfAbsent(pending("Taken@example.com", System.currentTimeMillis())));
+        assertSame(original, store.find("taken@example.com").orElseThrow());
+
+        assertTrue(store.putIfAbsent(pending("stale@example.com", twoHoursAgo)));
+        PendingRegistration retry = pending("stale@example.com", System.currentTimeMillis());
+        assertTrue(store.putIfAbsent(retry));
+        assertSame(retry, store.find("stale@example.com").orElseThrow());
+    }
+
+    private static PendingRegistration pending(String email, long createdAt) {
+        return PendingRegistration.builder()
+                .userId(email)
+                .email(email)
+                .password("encoded")
+                .createdAt(createdAt)
+                .build();
+    }
+}
@@ -0,0 +1,182 @@
+package com.example.ExpenseTracker.SpringConfig;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two embedded H2 databases stand in for the primary and one replica; each knows its own name,
+ * and the replica reports its lag from a table the test controls.
+ */
+class ReplicaDataSourceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private JdbcTemplate primaryJdbc;
+    private JdbcTemplate replicaJdbc;
+    private ReplicaDataSource replicaDataSource;
+    private LazyConnectionDataSourceProxy routing;
+    private JdbcTemplate routedJdbc;
+    private DataSourceTransactionManager transactionManager;
+    private LocalContainerEntityManagerFactoryBean entityManagerFactory;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = h2("routing_primary");
+        DataSource replica = h2("routing_replica");
+        primaryJdbc = new JdbcTemplate(primary);
+        replicaJdbc = new JdbcTemplate(replica);
+        primaryJdbc.execute("CREATE TABLE node (name VARCHAR(16))");
+        primaryJdbc.update("INSERT INTO node VALUES ('primary')");
+        replicaJdbc.execute("CREATE TABLE node (name VARCHAR(16))");
+        replicaJdbc.update("INSERT INTO node VALUES ('replica')");
+        replicaJdbc.execute("CREATE TABLE replica_lag (lag_seconds BIGINT)");
+        replicaJdbc.update("INSERT INTO replica_lag VALUES (0)");
+
+        replicaDataSource = new ReplicaDataSource(primary, Map.of("replica-1", replica), Duration.ofSeconds(5),
+                "SELECT lag_seconds FROM replica_lag", "lag_seconds", meterRegistry);
+        routing = new LazyConnectionDataSourceProxy(primary);
+        routing.setReadOnlyDataSource(replicaDataSource);
+        routedJdbc = new JdbcTemplate(routing);
+        transactionManager = new DataSourceTransactionManager(routing);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (entityManagerFactory != null) {
+            entityManagerFactory.destroy();
+        }
+        primaryJdbc.execute("DROP ALL OBJECTS");
+        replicaJdbc.execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void readOnlyTransactionsGoToReplicaAndWritesToPrimary() {
+        replicaDataSource.checkLag();
+
+        assertEquals("replica", nodeSeenBy(true));
+        assertEquals("primary", nodeSeenBy(false));
+    }
+
+    @Test
+    void laggingReplicaFallsBackToPrimaryUntilItCatchesUp() {
+        replicaJdbc.update("UPDATE replica_lag SET lag_seconds = 60");
+        replicaDataSource.checkLag();
+
+        assertEquals("primary", nodeSeenBy(true));
+        assertEquals(1.0, meterRegistry.counter("datasource.routing.fallback").count());
+        assertEquals(60.0, meterRegistry.get("datasource.replica.lag").gauge().value());
+
+        replicaJdbc.update("UPDATE replica_lag SET lag_seconds = 1");
+        replicaDataSource.checkLag();
+
+        assertEquals("replica", nodeSeenBy(true));
+    }
+
+    @Test
+    void replicaWithStoppedReplicationIsNotUsed() {
+        replicaJdbc.update("UPDATE replica_lag SET lag_seconds = NULL");
+        replicaDataSource.checkLag();
+
+        assertEquals("primary", nodeSeenBy(true));
+    }
+
+    @Test
+    void explicitCredentialsAreRoutedLikeTheDefaultOnes() throws Exception {
+        replicaDataSource.checkLag();
+        assertEquals("replica", nodeSeenBy(replicaDataSource.getConnection("sa", "")));
+
+        replicaJdbc.update("UPDATE replica_lag SET lag_seconds = 60");
+        replicaDataSource.checkLag();
+        assertEquals("primary", nodeSeenBy(replicaDataSource.getConnection("sa", "")));
+    }
+
+    @Test
+    void jpaTransactionsAreRoutedPerTransaction() {
+        replicaDataSource.checkLag();
+        JpaTransactionManager jpaTransactionManager = new JpaTransactionManager(jpaEntityManagerFactory());
+        EntityManager entityManager = SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory.getObject());
+
+        TransactionTemplate readOnly = new TransactionTemplate(jpaTransactionManager);
+        readOnly.setReadOnly(true);
+        TransactionTemplate readWrite = new TransactionTemplate(jpaTransactionManager);
+
+        // Without open-in-view, a read-only transaction does not decide where the next one on the thread goes
+        assertEquals("replica", readOnly.execute(status -> nodeSeenBy(entityManager)));
+        assertEquals("primary", readWrite.execute(status -> nodeSeenBy(entityManager)));
+        assertEquals("replica", readOnly.execute(status -> nodeSeenBy(entityManager)));
+    }
+
+    @Test
+    void nestedReadsShareTheOuterReadOnlyConnection() {
+        replicaDataSource.checkLag();
+        JpaTransactionManager jpaTransactionManager = new JpaTransactionManager(jpaEntityManagerFactory());
+        EntityManager entityManager = SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory.getObject());
+        TransactionTemplate readOnly = new TransactionTemplate(jpaTransactionManager);
+        readOnly.setReadOnly(true);
+
+        String[] seen = readOnly.execute(status -> {
+            String first = nodeSeenBy(entityManager);
+            // The replica turns unhealthy between the two reads; the open transaction keeps its connection
+            replicaJdbc.update("UPDATE replica_lag SET lag_seconds = 60");
+            replicaDataSource.checkLag();
+            String second = readOnly.execute(inner -> nodeSeenBy(entityManager));
+            return new String[]{first, second};
+        });
+
+        assertArrayEquals(new String[]{"replica", "replica"}, seen);
+    }
+
+    private EntityManagerFactory jpaEntityManagerFactory() {
+        entityManagerFactory = new LocalContainerEntityManagerFactoryBean();
+        entityManagerFactory.setDataSource(routing);
+        entityManagerFactory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        entityManagerFactory.setPackagesToScan("com.example.ExpenseTracker.SpringConfig");
+        entityManagerFactory.afterPropertiesSet();
+        return entityManagerFactory.getObject();
+    }
+
+    private static String nodeSeenBy(EntityManager entityManager) {
+        return (String) entityManager.createNativeQuery("SELECT name FROM node").getSingleResult();
+    }
+
+    private static String nodeSeenBy(Connection connection) throws SQLException {
+        try (connection; Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT name FROM node")) {
+            rs.next();
+            return rs.getString(1);
+        }
+    }
+
+    private String nodeSeenBy(boolean readOnly) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(readOnly);
+        return transaction.execute(status -> routedJdbc.queryForObject("SELECT name FROM node", String.class));
+    }
+
+    private static DataSource h2(String name) {
+        return new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+    }
+}
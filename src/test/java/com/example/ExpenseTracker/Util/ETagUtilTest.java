@@ -0,0 +1,100 @@
+package com.example.ExpenseTracker.Util;
+
+import com.example.ExpenseTracker.SpringConfig.BinaryEncodingConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+class ETagUtilTest {
+
+    // Headers where a hand-rolled match is easy to get wrong: q-values, ties, q=0, wildcards and suffixes
+    private static final List<String> ACCEPT_HEADERS = List.of(
+            "", "*/*", "application/*", "application/json", "application/cbor", "application/x-jackson-smile",
+            "application/json, application/cbor;q=0.1",
+            "application/cbor;q=0.1, */*",
+            "application/cbor, */*;q=0.5",
+            "application/json;q=0.2, application/x-jackson-smile",
+            "application/x-jackson-smile;q=0.9, application/cbor;q=0.9",
+            "application/cbor;q=0.9, application/x-jackson-smile;q=0.9",
+            "application/*+cbor",
+            "application/*+json, application/cbor;q=0.5",
+            "application/problem+json",
+            "application/cbor;q=0, */*",
+            "application/json;q=0, application/cbor;q=0.5",
+            "text/*, application/cbor;q=0.2",
+            "text/html, application/x-jackson-smile;q=0.3, */*;q=0.1");
+
+    record Probe(int value) {
+    }
+
+    @RestController
+    static class ProbeController {
+
+        @GetMapping("/probe")
+        Probe probe() {
+            return new Probe(1);
+        }
+    }
+
+    @Test
+    void missingOrWildcardAcceptIsJson() {
+        assertEquals("json", ETagUtil.encoding(null));
+        assertEquals("json", ETagUtil.encoding(""));
+        assertEquals("json", ETagUtil.encoding("*/*"));
+        assertEquals("json", ETagUtil.encoding("application/*"));
+    }
+
+    @Test
+    void qualityValuesDecideBetweenListedTypes() {
+        assertEquals("json", ETagUtil.encoding("application/json, application/cbor;q=0.1"));
+        assertEquals("smile", ETagUtil.encoding("application/json;q=0.2, application/x-jackson-smile"));
+        assertEquals("cbor", ETagUtil.encoding("application/cbor, */*;q=0.5"));
+    }
+
+    @Test
+    void malformedAcceptFallsBackToJson() {
+        assertEquals("json", ETagUtil.encoding("not a media type;;"));
+    }
+
+    @Test
+    void encodingMatchesTheRepresentationSpringNegotiates() throws Exception {
+        BinaryEncodingConfig config = new BinaryEncodingConfig();
+        HttpMessageConverters converters = new HttpMessageConverters(
+                config.cborHttpMessageConverter(new Jackson2ObjectMapperBuilder()),
+                config.smileHttpMessageConverter(new Jackson2ObjectMapperBuilder()));
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new ProbeController())
+                .setMessageConverters(converters.getConverters().toArray(new HttpMessageConverter<?>[0]))
+                .build();
+
+        for (String accept : ACCEPT_HEADERS) {
+            MockHttpServletResponse response = mockMvc.perform(get("/probe").header(HttpHeaders.ACCEPT, accept))
+                    .andReturn().getResponse();
+            if (response.getStatus() == 406) {
+                continue;
+            }
+            assertEquals(200, response.getStatus(), accept);
+            assertEquals(variantOf(MediaType.parseMediaType(response.getContentType())), ETagUtil.encoding(accept),
+                    () -> "Accept: " + accept + " was answered with " + response.getContentType());
+        }
+    }
+
+    private static String variantOf(MediaType contentType) {
+        if (MediaType.APPLICATION_CBOR.isCompatibleWith(contentType)) {
+            return "cbor";
+        }
+        return contentType.getSubtype().equals("x-jackson-smile") ? "smile" : "json";
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.ExpenseTracker.Util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PageCursorTest {
+
+    @Test
+    void roundTripsDatedAndUndatedCursors() {
+        PageCursor dated = new PageCursor(LocalDate.of(2025, 3, 1), 42L);
+        PageCursor undated = new PageCursor(null, 7L);
+
+        assertEquals(dated, PageCursor.decode(dated.encode()));
+        assertEquals(undated, PageCursor.decode(undated.encode()));
+    }
+
+    @Test
+    void acceptsUndatedCursorsInTheOldFormat() {
+        String legacy = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("null|7".getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(new PageCursor(null, 7L), PageCursor.decode(legacy));
+    }
+
+    @Test
+    void rejectsMalformedCursors() {
+        assertThrows(IllegalArgumentException.class, () -> PageCursor.decode("not base64!"));
+        String noSeparator = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("2025-03-01".getBytes(StandardCharsets.UTF_8));
+        assertThrows(IllegalArgumentException.class, () -> PageCursor.decode(noSeparator));
+    }
+}